@@ -0,0 +1,32 @@
+#!/usr/bin/env bash
+# Start a standalone Selenium Grid on this machine, run the suite against it, then stop the grid.
+# Usage: scripts/run-local-grid.sh [extra maven args...]
+set -uo pipefail
+
+SELENIUM_VERSION="${SELENIUM_VERSION:-4.15.0}"
+GRID_PORT="${GRID_PORT:-4444}"
+GRID_DIR="target/grid"
+JAR="$GRID_DIR/selenium-server-$SELENIUM_VERSION.jar"
+
+mkdir -p "$GRID_DIR"
+if [ ! -f "$JAR" ]; then
+    curl -fsSL -o "$JAR" \
+        "https://github.com/SeleniumHQ/selenium/releases/download/selenium-$SELENIUM_VERSION/selenium-server-$SELENIUM_VERSION.jar" || exit 1
+fi
+
+java -jar "$JAR" standalone --port "$GRID_PORT" > "$GRID_DIR/grid.log" 2>&1 &
+grid_pid=$!
+trap 'kill "$grid_pid" 2>/dev/null; wait "$grid_pid" 2>/dev/null' EXIT
+
+for _ in $(seq 1 60); do
+    if curl -fs "http://localhost:$GRID_PORT/status" | grep -q '"ready": *true'; then
+        break
+    fi
+    if ! kill -0 "$grid_pid" 2>/dev/null; then
+        echo "Grid failed to start, see $GRID_DIR/grid.log"
+        exit 1
+    fi
+    sleep 1
+done
+
+mvn -B test -Dgrid.enabled=true -Dgrid.hub.url="http://localhost:$GRID_PORT" "$@"
@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Run the suite as N shard processes on this machine, then merge their reports.
+# Usage: scripts/run-shards.sh [shard-count] [extra maven args...]
+set -uo pipefail
+
+SHARDS="${1:-2}"
+shift || true
+
+mvn -B -q test-compile "$@" || exit 1
+rm -rf target/shards
+mkdir -p target/shards
+
+# Freeze the duration history so every shard partitions from the same snapshot while the others record into it
+history_args=()
+if [ -f test-history/scenario-durations.json ]; then
+    cp test-history/scenario-durations.json target/shards/durations.json
+    history_args=(-Dshard.history=target/shards/durations.json)
+fi
+
+# Shards run side by side, so every report and log path points into the shard's own directory. The runners'
+# @CucumberOptions report paths are moved there by the shard itself (RunnerPlugins.createRunner).
+pids=()
+for ((i = 0; i < SHARDS; i++)); do
+    shard_dir="target/shards/shard-$i"
+    mkdir -p "$shard_dir"
+    mvn -B surefire:test "$@" \
+        -Dshard.index="$i" \
+        -Dshard.total="$SHARDS" \
+        ${history_args[@]+"${history_args[@]}"} \
+        -Dallure.results.directory="$shard_dir/allure-results" \
+        -Dreports.path="$shard_dir/reports/" \
+        -Dscreenshot.path="$shard_dir/screenshots/" \
+        -Dlog.dir="$shard_dir/logs" \
+        > "$shard_dir/maven.log" 2>&1 &
+    pids+=($!)
+done
+
+status=0
+for i in "${!pids[@]}"; do
+    if ! wait "${pids[$i]}"; then
+        echo "Shard $i failed, see target/shards/shard-$i/maven.log and target/shards/shard-$i/logs/"
+        status=1
+    fi
+done
+
+mvn -B -q exec:java -Dexec.mainClass=com.saucedemo.execution.ShardReportMerger \
+    -Dexec.args="target/shards target" "$@" || status=1
+exit $status
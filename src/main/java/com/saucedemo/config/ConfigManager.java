@@ -6,6 +6,7 @@ import org.apache.logging.log4j.Logger;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * Configuration Manager for handling application properties
@@ -53,11 +54,12 @@ public class ConfigManager {
     
     /**
      * Get property value by key
+     * A JVM system property with the same key (e.g. -Dthread.count=5) overrides the file value
      * @param key Property key
      * @return Property value
      */
     public String getProperty(String key) {
-        String value = properties.getProperty(key);
+        String value = System.getProperty(key, properties.getProperty(key));
         if (value == null) {
             logger.warn("Property not found for key: {}", key);
         }
@@ -71,7 +73,15 @@ public class ConfigManager {
      * @return Property value or default value
      */
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        return System.getProperty(key, properties.getProperty(key, defaultValue));
+    }
+    
+    /**
+     * Get names of all properties defined in the configuration file
+     * @return Property names
+     */
+    public Set<String> getPropertyNames() {
+        return properties.stringPropertyNames();
     }
     
     /**
@@ -108,6 +118,18 @@ public class ConfigManager {
         return getProperty("app.title");
     }
     
+    public String getAppTarget() {
+        return getProperty("app.target", "remote");
+    }
+    
+    public int getLocalAppPort() {
+        return Integer.parseInt(getProperty("local.app.port", "0"));
+    }
+    
+    public int getLocalAppThreads() {
+        return Integer.parseInt(getProperty("local.app.threads", "8"));
+    }
+    
     public String getBrowser() {
         return getProperty("browser", "chrome");
     }
@@ -116,6 +138,36 @@ public class ConfigManager {
         return getBooleanProperty("headless");
     }
     
+    public String getBrowserLaunchProfile() {
+        return getProperty("browser.launch.profile", "performance");
+    }
+    
+    public String getBrowserWindowSize() {
+        return getProperty("browser.window.size", "1920x1080");
+    }
+    
+    // Browser Process Supervision
+    public boolean isBrowserProcessSupervisionEnabled() {
+        return Boolean.parseBoolean(getProperty("browser.process.supervision", "true"));
+    }
+    
+    public String getBrowserProcessLedgerDir() {
+        return getProperty("browser.process.ledger.dir", "test-history/browser-processes");
+    }
+    
+    public int getBrowserQuitTimeoutSeconds() {
+        return Integer.parseInt(getProperty("browser.quit.timeout.seconds", "15"));
+    }
+    
+    public int getBrowserMemoryCheckIntervalSeconds() {
+        return Integer.parseInt(getProperty("browser.memory.check.interval.seconds", "10"));
+    }
+    
+    public int getBrowserMemoryCeilingMb(String browserName) {
+        return Integer.parseInt(getProperty("browser.memory.ceiling.mb." + browserName.toLowerCase(),
+            getProperty("browser.memory.ceiling.mb", "0")));
+    }
+    
     public int getImplicitWait() {
         return getIntProperty("implicit.wait");
     }
@@ -128,6 +180,26 @@ public class ConfigManager {
         return getIntProperty("page.load.timeout");
     }
     
+    public String getPageLoadStrategy() {
+        return getProperty("page.load.strategy", "normal");
+    }
+    
+    public String getWaitMode() {
+        return getProperty("wait.mode", "event");
+    }
+    
+    public int getWaitPollingIntervalMs() {
+        return Integer.parseInt(getProperty("wait.polling.interval.ms", "500"));
+    }
+    
+    public int getWaitEventMaxSleepMs() {
+        return Integer.parseInt(getProperty("wait.event.max.sleep.ms", "2000"));
+    }
+    
+    public int getWaitEventMinIntervalMs() {
+        return Integer.parseInt(getProperty("wait.event.min.interval.ms", "50"));
+    }
+    
     public String getEnvironment() {
         return getProperty("environment");
     }
@@ -136,6 +208,14 @@ public class ConfigManager {
         return getProperty("test.data.path");
     }
     
+    public boolean isCompiledTestDataEnabled() {
+        return Boolean.parseBoolean(getProperty("compiled.test.data.enabled", "true"));
+    }
+    
+    public String getCompiledTestDataFile() {
+        return getProperty("compiled.test.data.file", "target/compiled-testdata/testdata.bin");
+    }
+    
     public String getScreenshotPath() {
         return getProperty("screenshot.path");
     }
@@ -160,6 +240,43 @@ public class ConfigManager {
         return getIntProperty("retry.count");
     }
     
+    public int getRetryBudget() {
+        return Integer.parseInt(getProperty("retry.budget", "10"));
+    }
+    
+    public String getRetryFailureClasses() {
+        return getProperty("retry.failure.classes", "DRIVER_CRASH,TIMEOUT,STALE_ELEMENT");
+    }
+    
+    public boolean isRetryFreshDriver() {
+        return Boolean.parseBoolean(getProperty("retry.fresh.driver", "true"));
+    }
+    
+    // Flakiness
+    public String getFlakinessHistoryFile() {
+        return getProperty("flakiness.history.file", "test-history/flakiness.json");
+    }
+    
+    public int getFlakinessWindow() {
+        return Integer.parseInt(getProperty("flakiness.window", "20"));
+    }
+    
+    public int getFlakinessMinRuns() {
+        return Integer.parseInt(getProperty("flakiness.min.runs", "5"));
+    }
+    
+    public double getFlakinessThreshold() {
+        return Double.parseDouble(getProperty("flakiness.threshold", "0.3"));
+    }
+    
+    public boolean isFlakinessQuarantineEnabled() {
+        return Boolean.parseBoolean(getProperty("flakiness.quarantine", "false"));
+    }
+    
+    public int getFlakinessQuarantineThreads() {
+        return Integer.parseInt(getProperty("flakiness.quarantine.threads", "1"));
+    }
+    
     public int getThreadCount() {
         return getIntProperty("thread.count");
     }
@@ -168,6 +285,196 @@ public class ConfigManager {
         return getProperty("parallel.mode");
     }
     
+    public String getScenarioScheduling() {
+        return getProperty("scenario.scheduling", "longest_first");
+    }
+    
+    public String getScenarioDurationHistoryFile() {
+        return getProperty("scenario.duration.history.file", "test-history/scenario-durations.json");
+    }
+    
+    // Sharding
+    public int getShardIndex() {
+        return Integer.parseInt(getProperty("shard.index", "0"));
+    }
+    
+    public int getShardTotal() {
+        return Integer.parseInt(getProperty("shard.total", "1"));
+    }
+    
+    public String getShardOutputBaseDir() {
+        return getProperty("shard.output.dir", "target/shards/");
+    }
+    
+    public String getShardHistoryFile() {
+        return getProperty("shard.history", "");
+    }
+    
+    // Forked Workers
+    public int getForkedWorkerCount() {
+        return Integer.parseInt(getProperty("forked.workers", String.valueOf(getThreadCount())));
+    }
+    
+    public String getForkedRunnerClasses() {
+        return getProperty("forked.runner.classes", "com.saucedemo.runners.LoginTestRunner");
+    }
+    
+    public int getForkedMaxReassign() {
+        return Integer.parseInt(getProperty("forked.max.reassign", "1"));
+    }
+    
+    public int getForkedMaxRespawns() {
+        return Integer.parseInt(getProperty("forked.max.respawns", "2"));
+    }
+    
+    public int getForkedScenarioTimeoutSeconds() {
+        return Integer.parseInt(getProperty("forked.scenario.timeout.seconds", "600"));
+    }
+    
+    public String getForkedOutputDir() {
+        return getProperty("forked.output.dir", "target/forked/");
+    }
+    
+    public String getWorkStealingRunnerClasses() {
+        return getProperty("work.stealing.runner.classes", "com.saucedemo.runners.LoginTestRunner");
+    }
+    
+    public long getWorkStealingTimeoutMinutes() {
+        return Long.parseLong(getProperty("work.stealing.timeout.minutes", "120"));
+    }
+    
+    public int getSuiteGeneratorTestBlocks() {
+        return Integer.parseInt(getProperty("suite.generator.test.blocks", String.valueOf(getThreadCount())));
+    }
+    
+    // Adaptive Concurrency
+    public boolean isConcurrencyAdaptive() {
+        return Boolean.parseBoolean(getProperty("concurrency.adaptive", "false"));
+    }
+    
+    public int getConcurrencyInitial() {
+        return Integer.parseInt(getProperty("concurrency.initial", "2"));
+    }
+    
+    public int getConcurrencyMax() {
+        int max = Integer.parseInt(getProperty("concurrency.max", "0"));
+        return max > 0 ? max : Runtime.getRuntime().availableProcessors();
+    }
+    
+    public int getConcurrencyAdjustIntervalSeconds() {
+        return Integer.parseInt(getProperty("concurrency.adjust.interval.seconds", "15"));
+    }
+    
+    public double getConcurrencyCpuHigh() {
+        return Double.parseDouble(getProperty("concurrency.cpu.high", "0.85"));
+    }
+    
+    public double getConcurrencyCpuLow() {
+        return Double.parseDouble(getProperty("concurrency.cpu.low", "0.60"));
+    }
+    
+    public long getConcurrencyMinFreeMemoryMb() {
+        return Long.parseLong(getProperty("concurrency.min.free.memory.mb", "1024"));
+    }
+    
+    public double getConcurrencyMaxStepLatencyInflation() {
+        return Double.parseDouble(getProperty("concurrency.max.step.latency.inflation", "1.5"));
+    }
+    
+    // Fail-fast
+    public String getGateTags() {
+        return getProperty("gate.tags", "");
+    }
+    
+    public String getGateFailurePolicy() {
+        return getProperty("gate.failure.policy", "skip");
+    }
+    
+    public int getCircuitBreakerThreshold() {
+        return Integer.parseInt(getProperty("circuit.breaker.threshold", "0"));
+    }
+    
+    // Impact Selection
+    public String getTestSelection() {
+        return getProperty("test.selection", "all");
+    }
+    
+    public boolean isImpactRecordingEnabled() {
+        return Boolean.parseBoolean(getProperty("impact.record", "false"));
+    }
+    
+    public String getImpactMapFile() {
+        return getProperty("impact.map.file", "test-history/impact-map.json");
+    }
+    
+    public String getImpactBaseRef() {
+        return getProperty("impact.base.ref", "origin/main");
+    }
+    
+    public String getImpactIgnoredSuffixes() {
+        return getProperty("impact.ignored.suffixes", ".md");
+    }
+    
+    // Result Cache
+    public boolean isResultCacheEnabled() {
+        return Boolean.parseBoolean(getProperty("result.cache.enabled", "false"));
+    }
+    
+    public String getResultCacheFile() {
+        return getProperty("result.cache.file", "test-history/result-cache.json");
+    }
+    
+    public String getResultCacheInputs() {
+        return getProperty("result.cache.inputs", getTestDataPath());
+    }
+    
+    public String getResultCacheConfigKeys() {
+        return getProperty("result.cache.config.keys", "app.url,browser,headless");
+    }
+    
+    // Resource Blocking
+    public boolean isResourceBlockingEnabled() {
+        return Boolean.parseBoolean(getProperty("resource.blocking.enabled", "false"));
+    }
+    
+    public String getResourceBlockingCategories() {
+        return getProperty("resource.blocking.categories", "images,fonts,analytics");
+    }
+    
+    public String getResourceBlockingPatterns(String category) {
+        return getProperty("resource.blocking.pattern." + category, "");
+    }
+    
+    // Network Archive
+    public String getNetworkMode() {
+        return getProperty("network.mode", "off");
+    }
+    
+    public String getNetworkArchiveDir() {
+        return getProperty("network.archive.dir", "test-history/network-archive");
+    }
+    
+    public String getNetworkArchiveUrlPattern() {
+        return getProperty("network.archive.url.pattern", "*");
+    }
+    
+    public boolean isNetworkReplayStrict() {
+        return Boolean.parseBoolean(getProperty("network.replay.strict", "false"));
+    }
+    
+    // Test Data Leasing
+    public String getDataLeaseUserPool() {
+        return getProperty("data.lease.user.pool", getStandardUser());
+    }
+    
+    public int getDataLeaseTimeoutSeconds() {
+        return Integer.parseInt(getProperty("data.lease.timeout.seconds", "300"));
+    }
+    
+    public String getDataLeaseExhaustedPolicy() {
+        return getProperty("data.lease.exhausted.policy", "wait");
+    }
+    
     // User Credentials
     public String getStandardUser() {
         return getProperty("standard.user");
@@ -206,6 +513,30 @@ public class ConfigManager {
         return getProperty("grid.hub.url");
     }
     
+    public int getGridConnectTimeoutSeconds() {
+        return Integer.parseInt(getProperty("grid.connect.timeout.seconds", "10"));
+    }
+    
+    public int getGridReadTimeoutSeconds() {
+        return Integer.parseInt(getProperty("grid.read.timeout.seconds", "120"));
+    }
+    
+    public String getGridHttpClientFactory() {
+        return getProperty("grid.http.client.factory", "jdk-http-client");
+    }
+    
+    public int getGridHttpPoolSize() {
+        return Integer.parseInt(getProperty("grid.http.pool.size", "0"));
+    }
+    
+    public int getGridHttpKeepAliveSeconds() {
+        return Integer.parseInt(getProperty("grid.http.keepalive.seconds", "300"));
+    }
+    
+    public boolean isGridCommandMetricsEnabled() {
+        return Boolean.parseBoolean(getProperty("grid.command.metrics", "true"));
+    }
+    
     // Mobile Configuration
     public boolean isMobileEnabled() {
         return getBooleanProperty("mobile.enabled");
@@ -0,0 +1,292 @@
+package com.saucedemo.execution;
+
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adjusts how many scenarios (and so browsers) run at once from observed machine load
+ * Runner threads are sized to concurrency.max, but each scenario must acquire a permit first. The limit
+ * starts at concurrency.initial and is re-evaluated every interval: it ramps up while CPU, free memory
+ * and step latency stay healthy, and backs off when two intervals in a row show starvation. When that
+ * follows an increase, the level that caused it becomes a ceiling; the ceiling is raised again after a
+ * sustained run of healthy intervals, so one bad spell does not cap the rest of the run.
+ */
+public class AdaptiveConcurrencyController {
+    private static final Logger logger = LogManager.getLogger(AdaptiveConcurrencyController.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final long MB = 1024 * 1024;
+    private static final double LATENCY_RAMP_LIMIT = 1.2;
+    private static final int STARVING_INTERVALS_TO_BACK_OFF = 2;
+    private static final int HEALTHY_INTERVALS_TO_RAISE_CEILING = 4;
+    private static final Path MEMINFO = Paths.get("/proc/meminfo");
+    private static volatile AdaptiveConcurrencyController instance;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private final int maxConcurrency;
+    private final AtomicInteger completedInInterval = new AtomicInteger();
+    private final Map<String, Double> stepBaselines = new ConcurrentHashMap<>();
+    private final List<Double> intervalInflation = new ArrayList<>();
+    private final Map<Integer, double[]> throughputByLevel = new TreeMap<>();
+    private final ScheduledExecutorService sampler;
+    private int limit;
+    private int ceiling;
+    private int active;
+    private int waiting;
+    private int starvingIntervals;
+    private int healthyIntervals;
+    private boolean lastChangeWasIncrease;
+    
+    private AdaptiveConcurrencyController() {
+        this.maxConcurrency = config.getConcurrencyMax();
+        this.limit = Math.min(config.getConcurrencyInitial(), maxConcurrency);
+        this.ceiling = maxConcurrency;
+        
+        int interval = config.getConcurrencyAdjustIntervalSeconds();
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "concurrency-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(this::adjust, interval, interval, TimeUnit.SECONDS);
+        logger.info("Adaptive concurrency started at {} (max {}), re-evaluated every {} s", limit, maxConcurrency, interval);
+    }
+    
+    /**
+     * Get the controller shared by all runners of this JVM
+     * @return AdaptiveConcurrencyController instance
+     */
+    public static AdaptiveConcurrencyController getInstance() {
+        if (instance == null) {
+            synchronized (AdaptiveConcurrencyController.class) {
+                if (instance == null) {
+                    instance = new AdaptiveConcurrencyController();
+                }
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Check if adaptive concurrency is enabled
+     * @return true if concurrency.adaptive is set
+     */
+    public static boolean isEnabled() {
+        return config.isConcurrencyAdaptive();
+    }
+    
+    /**
+     * Number of runner threads to create so the controller has room to ramp up
+     * @return Maximum concurrency
+     */
+    public static int getThreadCount() {
+        return config.getConcurrencyMax();
+    }
+    
+    /**
+     * Wait until a scenario may start
+     */
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        waiting++;
+        try {
+            while (active >= limit) {
+                permitReleased.await();
+            }
+            active++;
+        } finally {
+            waiting--;
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Return the permit of a finished scenario
+     */
+    public void release() {
+        completedInInterval.incrementAndGet();
+        lock.lock();
+        try {
+            active--;
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Record a step duration, used to detect latency inflation as concurrency grows
+     * The first observations of each step, taken at the initial safe level, form its baseline
+     * @param stepText Step text
+     * @param nanos Step duration
+     */
+    public void recordStep(String stepText, long nanos) {
+        Double baseline = stepBaselines.putIfAbsent(stepText, (double) nanos);
+        if (baseline != null && baseline > 0) {
+            synchronized (intervalInflation) {
+                intervalInflation.add(nanos / baseline);
+            }
+        }
+    }
+    
+    /**
+     * Log the throughput achieved at each concurrency level
+     */
+    public void logSummary() {
+        lock.lock();
+        try {
+            logger.info("========== ADAPTIVE CONCURRENCY SUMMARY ==========");
+            logger.info("Final limit {}, ceiling {}", limit, ceiling);
+            throughputByLevel.forEach((level, stats) -> logger.info(
+                "Concurrency {}: {} scenarios in {} s, {} scenarios/min",
+                level, (long) stats[0], Math.round(stats[1]), String.format("%.1f", stats[1] > 0 ? 60 * stats[0] / stats[1] : 0)));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Sample machine health and move the limit by one step
+     */
+    private void adjust() {
+        try {
+            double intervalSeconds = config.getConcurrencyAdjustIntervalSeconds();
+            int completed = completedInInterval.getAndSet(0);
+            double cpu = systemCpuLoad();
+            long freeMemoryMb = freeMemoryMb();
+            double inflation = medianInflation();
+            
+            lock.lock();
+            try {
+                int previous = limit;
+                double[] stats = throughputByLevel.computeIfAbsent(previous, level -> new double[2]);
+                stats[0] += completed;
+                stats[1] += intervalSeconds;
+                
+                boolean starving = cpu > config.getConcurrencyCpuHigh()
+                    || freeMemoryMb < config.getConcurrencyMinFreeMemoryMb()
+                    || inflation > config.getConcurrencyMaxStepLatencyInflation();
+                boolean healthy = cpu >= 0 && cpu < config.getConcurrencyCpuLow()
+                    && freeMemoryMb >= 2L * config.getConcurrencyMinFreeMemoryMb()
+                    && inflation < LATENCY_RAMP_LIMIT;
+                
+                starvingIntervals = starving ? starvingIntervals + 1 : 0;
+                healthyIntervals = healthy ? healthyIntervals + 1 : 0;
+                
+                String decision;
+                if (starvingIntervals >= STARVING_INTERVALS_TO_BACK_OFF && limit > 1) {
+                    // Only starvation right after a ramp-up says the new level is too high, otherwise the
+                    // load came from elsewhere and the level is lowered without capping it
+                    if (lastChangeWasIncrease) {
+                        ceiling = Math.min(ceiling, limit - 1);
+                    }
+                    limit--;
+                    starvingIntervals = 0;
+                    lastChangeWasIncrease = false;
+                    decision = "decrease, ceiling now " + ceiling;
+                } else if (healthy && waiting > 0 && limit < ceiling) {
+                    limit++;
+                    lastChangeWasIncrease = true;
+                    permitReleased.signalAll();
+                    decision = "increase";
+                } else if (healthyIntervals >= HEALTHY_INTERVALS_TO_RAISE_CEILING && limit == ceiling && ceiling < maxConcurrency) {
+                    ceiling++;
+                    healthyIntervals = 0;
+                    decision = "hold, ceiling raised to " + ceiling;
+                } else {
+                    decision = starving ? "hold, starving" : "hold";
+                }
+                
+                logger.info("Concurrency {} -> {} ({}): cpu {}%, free memory {} MB, step latency x{}, "
+                           + "throughput {} scenarios/min, {} running, {} waiting",
+                           previous, limit, decision, cpu >= 0 ? Math.round(cpu * 100) : "n/a", freeMemoryMb,
+                           String.format("%.2f", inflation), String.format("%.1f", 60 * completed / intervalSeconds),
+                           active, waiting);
+            } finally {
+                lock.unlock();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Concurrency adjustment failed", e);
+        }
+    }
+    
+    private double medianInflation() {
+        List<Double> samples;
+        synchronized (intervalInflation) {
+            samples = new ArrayList<>(intervalInflation);
+            intervalInflation.clear();
+        }
+        if (samples.isEmpty()) {
+            return 1.0;
+        }
+        samples.sort(Double::compare);
+        return samples.get(samples.size() / 2);
+    }
+    
+    /**
+     * System CPU load between 0 and 1, or -1 if the JVM does not expose it
+     */
+    @SuppressWarnings("deprecation")
+    private static double systemCpuLoad() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getSystemCpuLoad();
+        }
+        double loadAverage = os.getSystemLoadAverage();
+        return loadAverage < 0 ? -1 : loadAverage / os.getAvailableProcessors();
+    }
+    
+    /**
+     * Memory available to new processes in MB
+     * On Linux this is MemAvailable, which counts reclaimable page cache as available; free memory alone
+     * shrinks towards zero as the cache fills and would read as starvation on a healthy machine.
+     */
+    @SuppressWarnings("deprecation")
+    private static long freeMemoryMb() {
+        long available = memAvailableMb();
+        if (available >= 0) {
+            return available;
+        }
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getFreePhysicalMemorySize() / MB;
+        }
+        return Long.MAX_VALUE / MB;
+    }
+    
+    private static long memAvailableMb() {
+        if (!Files.isReadable(MEMINFO)) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(MEMINFO)) {
+                if (line.startsWith("MemAvailable:")) {
+                    String[] fields = line.trim().split("\\s+");
+                    return Long.parseLong(fields[1]) / 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Could not read {}: {}", MEMINFO, e.getMessage());
+        }
+        return -1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,195 @@
+package com.saucedemo.execution;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.cucumber.testng.Pickle;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.Label;
+import io.qameta.allure.model.Stage;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.util.PropertiesUtils;
+import io.qameta.allure.util.ResultsUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Adds scenarios served from ResultCache to the Cucumber JSON and Allure reports
+ * A cached scenario never reaches Cucumber, so the formatters do not see it. Each one is written as a passed
+ * Allure result right away and, once the runner finished, appended to the runner's cucumber JSON reports
+ * (and so to the HTML generated from them) with a @cached tag and no steps. Cucumber's own html and junit
+ * reports are rendered by Cucumber itself and only list executed scenarios.
+ */
+public class CachedScenarioReport {
+    private static final Logger logger = LogManager.getLogger(CachedScenarioReport.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String JSON_PLUGIN_PREFIX = "json:";
+    
+    /**
+     * Tag marking cached scenarios in the reports
+     */
+    public static final String CACHED_TAG = "@cached";
+    
+    private final String runnerName;
+    private final List<Path> jsonReports = new ArrayList<>();
+    private final List<CachedScenario> scenarios = new CopyOnWriteArrayList<>();
+    
+    /**
+     * Constructor
+     * @param runnerName Runner class name, used as Allure suite
+     * @param plugins Cucumber plugin specs of the runner; json: plugins receive the cached scenarios
+     */
+    public CachedScenarioReport(String runnerName, List<String> plugins) {
+        this.runnerName = runnerName;
+        for (String plugin : plugins) {
+            if (plugin.startsWith(JSON_PLUGIN_PREFIX)) {
+                jsonReports.add(Paths.get(plugin.substring(JSON_PLUGIN_PREFIX.length())));
+            }
+        }
+    }
+    
+    /**
+     * Report a scenario served from the cache
+     * @param pickle Scenario
+     * @param featureName Name of the scenario's feature
+     * @param inputHash Input hash the cached result was recorded with
+     */
+    public void add(Pickle pickle, String featureName, String inputHash) {
+        CachedScenario scenario = new CachedScenario(pickle, featureName, inputHash);
+        scenarios.add(scenario);
+        writeAllureResult(scenario);
+    }
+    
+    /**
+     * Append the cached scenarios to the cucumber JSON reports
+     * Call after TestNGCucumberRunner.finish(), which writes the reports
+     */
+    public void writeCucumberJson() {
+        if (scenarios.isEmpty()) {
+            return;
+        }
+        for (Path report : jsonReports) {
+            try {
+                appendTo(report);
+                logger.info("Added {} cached scenarios to {}", scenarios.size(), report);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to add cached scenarios to {}", report, e);
+            }
+        }
+    }
+    
+    private void appendTo(Path report) throws IOException {
+        ArrayNode features = Files.exists(report)
+            ? (ArrayNode) objectMapper.readTree(report.toFile())
+            : objectMapper.createArrayNode();
+        
+        for (CachedScenario scenario : scenarios) {
+            ObjectNode feature = null;
+            for (JsonNode node : features) {
+                if (scenario.featureUri.equals(node.path("uri").asText())) {
+                    feature = (ObjectNode) node;
+                    break;
+                }
+            }
+            if (feature == null) {
+                feature = features.addObject();
+                feature.put("uri", scenario.featureUri);
+                feature.put("id", slug(scenario.featureName));
+                feature.put("keyword", "Feature");
+                feature.put("name", scenario.featureName);
+                feature.put("description", "");
+                feature.put("line", 1);
+                feature.putArray("elements");
+            }
+            
+            ObjectNode element = feature.withArray("elements").addObject();
+            element.put("id", slug(scenario.featureName) + ";" + slug(scenario.pickle.getName()));
+            element.put("keyword", "Scenario");
+            element.put("type", "scenario");
+            element.put("name", scenario.pickle.getName());
+            element.put("description", scenario.description());
+            element.put("line", scenario.pickle.getLine());
+            ArrayNode tags = element.putArray("tags");
+            for (String tag : scenario.pickle.getTags()) {
+                tags.addObject().put("name", tag);
+            }
+            tags.addObject().put("name", CACHED_TAG);
+            element.putArray("steps");
+        }
+        
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(report.toFile(), features);
+    }
+    
+    private void writeAllureResult(CachedScenario scenario) {
+        List<Label> labels = new ArrayList<>();
+        labels.add(ResultsUtils.createFeatureLabel(scenario.featureName));
+        labels.add(ResultsUtils.createSuiteLabel(runnerName));
+        for (String tag : scenario.pickle.getTags()) {
+            labels.add(ResultsUtils.createTagLabel(tag.substring(1)));
+        }
+        labels.add(ResultsUtils.createTagLabel(CACHED_TAG.substring(1)));
+        
+        long now = System.currentTimeMillis();
+        TestResult result = new TestResult()
+            .setUuid(UUID.randomUUID().toString())
+            .setHistoryId(scenario.scenarioId)
+            .setName(scenario.pickle.getName())
+            .setFullName(scenario.scenarioId)
+            .setDescription(scenario.description())
+            .setStatus(Status.PASSED)
+            .setStage(Stage.FINISHED)
+            .setStart(now)
+            .setStop(now)
+            .setLabels(labels);
+        
+        try {
+            Path resultsDir = Paths.get(PropertiesUtils.loadAllureProperties()
+                .getProperty("allure.results.directory", "allure-results"));
+            new FileSystemResultsWriter(resultsDir).write(result);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write Allure result of cached scenario {}", scenario.scenarioId, e);
+        }
+    }
+    
+    private static String slug(String name) {
+        return name.toLowerCase().replaceAll("[^a-z0-9]+", "-");
+    }
+    
+    /**
+     * Scenario served from the cache
+     */
+    private static class CachedScenario {
+        private final Pickle pickle;
+        private final String featureName;
+        private final String featureUri;
+        private final String scenarioId;
+        private final String inputHash;
+        
+        CachedScenario(Pickle pickle, String featureName, String inputHash) {
+            this.pickle = pickle;
+            this.featureName = featureName;
+            this.inputHash = inputHash;
+            this.scenarioId = ScenarioId.of(pickle.getUri(), pickle.getLine());
+            // Same form as Cucumber's JSON formatter, e.g. file:src/test/resources/features/login.feature
+            String path = ScenarioId.featurePath(pickle.getUri());
+            this.featureUri = "file".equals(pickle.getUri().getScheme()) && !path.startsWith("file:")
+                ? "file:" + path : path;
+        }
+        
+        String description() {
+            return "Not executed: passed before with identical inputs (input hash " + inputHash + ")";
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.saucedemo.execution;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.testng.SkipException;
+
+import java.net.ConnectException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cause of a scenario failure, used to decide whether retrying it can help
+ */
+public enum FailureClass {
+    DRIVER_CRASH,
+    TIMEOUT,
+    STALE_ELEMENT,
+    ASSERTION,
+    SKIPPED,
+    OTHER;
+    
+    private static final List<String> CRASH_MESSAGES = Arrays.asList(
+        "chrome not reachable", "disconnected:", "session deleted", "browser has closed", "Connection refused");
+    
+    /**
+     * Classify a failure by walking its cause chain
+     * A lost browser anywhere in the chain wins, since timeouts and stale elements are often its symptoms
+     * @param failure Throwable thrown by the scenario
+     * @return Failure class
+     */
+    public static FailureClass of(Throwable failure) {
+        if (failure instanceof SkipException) {
+            return SKIPPED;
+        }
+        
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (isDriverCrash(cause)) {
+                return DRIVER_CRASH;
+            }
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StaleElementReferenceException) {
+                return STALE_ELEMENT;
+            }
+            if (cause instanceof TimeoutException || cause instanceof ScriptTimeoutException) {
+                return TIMEOUT;
+            }
+            if (cause instanceof AssertionError) {
+                return ASSERTION;
+            }
+        }
+        return OTHER;
+    }
+    
+    private static boolean isDriverCrash(Throwable cause) {
+        if (cause instanceof NoSuchSessionException
+                || cause instanceof SessionNotCreatedException
+                || cause instanceof ConnectException
+                || "UnreachableBrowserException".equals(cause.getClass().getSimpleName())) {
+            return true;
+        }
+        String message = cause.getMessage();
+        return message != null && CRASH_MESSAGES.stream().anyMatch(message::contains);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.saucedemo.execution;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-scenario outcome history with a flakiness score over the last flakiness.window runs
+ * A run counts as flaky when the scenario only passed on retry or its outcome differs from the previous
+ * run; the score is the share of flaky runs in the window. A scenario that always fails scores 0, it is
+ * broken rather than flaky. Scenarios scoring at least flakiness.threshold are quarantined.
+ */
+public class FlakinessTracker {
+    private static final Logger logger = LogManager.getLogger(FlakinessTracker.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static volatile FlakinessTracker instance;
+    
+    /**
+     * TestNG result attribute holding the flakiness score of a scenario run in the quarantine lane
+     */
+    public static final String QUARANTINED_ATTRIBUTE = "flakiness.quarantined";
+    
+    /**
+     * Outcome of one scenario in one run
+     */
+    public enum Outcome {
+        PASSED,
+        PASSED_ON_RETRY,
+        FAILED
+    }
+    
+    private final HistoryFile<List<Outcome>> file;
+    private final int window = config.getFlakinessWindow();
+    private final Map<String, List<Outcome>> outcomes = new ConcurrentHashMap<>();
+    private final Set<String> recorded = ConcurrentHashMap.newKeySet();
+    private final Set<String> retried = ConcurrentHashMap.newKeySet();
+    
+    private FlakinessTracker(HistoryFile<List<Outcome>> file) {
+        this.file = file;
+        load();
+    }
+    
+    /**
+     * Get the tracker shared by all runners of this JVM
+     * @return FlakinessTracker instance
+     */
+    public static FlakinessTracker getInstance() {
+        if (instance == null) {
+            synchronized (FlakinessTracker.class) {
+                if (instance == null) {
+                    instance = new FlakinessTracker(new HistoryFile<>(Paths.get(config.getFlakinessHistoryFile()),
+                        new TypeReference<Map<String, List<Outcome>>>() {}));
+                }
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Check if flaky scenarios are moved to the quarantine lane
+     * @return true if flakiness.quarantine is set
+     */
+    public static boolean isQuarantineEnabled() {
+        return config.isFlakinessQuarantineEnabled();
+    }
+    
+    /**
+     * Note that a scenario failed in this run and is being retried
+     * @param scenarioId Scenario id
+     */
+    public void noteRetry(String scenarioId) {
+        retried.add(scenarioId);
+    }
+    
+    /**
+     * Record the final outcome of a scenario in this run
+     * @param scenarioId Scenario id
+     * @param passed Whether the scenario finally passed
+     */
+    public void record(String scenarioId, boolean passed) {
+        Outcome outcome = !passed ? Outcome.FAILED : retried.remove(scenarioId) ? Outcome.PASSED_ON_RETRY : Outcome.PASSED;
+        outcomes.compute(scenarioId, (id, previous) -> {
+            List<Outcome> history = previous != null ? new ArrayList<>(previous) : new ArrayList<>();
+            history.add(outcome);
+            return history.size() > window ? new ArrayList<>(history.subList(history.size() - window, history.size())) : history;
+        });
+        recorded.add(scenarioId);
+        
+        if (outcome != Outcome.PASSED) {
+            logger.info("Scenario {} {}, flakiness score {}", scenarioId, outcome, String.format("%.2f", getScore(scenarioId)));
+        }
+    }
+    
+    /**
+     * Get the flakiness score of a scenario
+     * @param scenarioId Scenario id
+     * @return Share of flaky runs in the window, 0 if the scenario has no history
+     */
+    public double getScore(String scenarioId) {
+        List<Outcome> history = outcomes.getOrDefault(scenarioId, Collections.emptyList());
+        if (history.isEmpty()) {
+            return 0;
+        }
+        
+        int flakyRuns = 0;
+        for (int i = 0; i < history.size(); i++) {
+            boolean passed = history.get(i) != Outcome.FAILED;
+            if (history.get(i) == Outcome.PASSED_ON_RETRY
+                    || (i > 0 && passed != (history.get(i - 1) != Outcome.FAILED))) {
+                flakyRuns++;
+            }
+        }
+        return (double) flakyRuns / history.size();
+    }
+    
+    /**
+     * Check if a scenario belongs in the quarantine lane
+     * @param scenarioId Scenario id
+     * @return true if it has at least flakiness.min.runs runs and scores at least flakiness.threshold
+     */
+    public boolean isQuarantined(String scenarioId) {
+        List<Outcome> history = outcomes.get(scenarioId);
+        return history != null
+            && history.size() >= config.getFlakinessMinRuns()
+            && getScore(scenarioId) >= config.getFlakinessThreshold();
+    }
+    
+    /**
+     * Write the outcome history file
+     */
+    public synchronized void save() {
+        if (recorded.isEmpty()) {
+            return;
+        }
+        
+        Map<String, List<Outcome>> updates = new ConcurrentHashMap<>();
+        for (String scenarioId : recorded) {
+            updates.put(scenarioId, outcomes.get(scenarioId));
+        }
+        try {
+            file.merge(updates, Collections.emptySet());
+            logger.info("Saved outcomes of {} scenarios to {}", updates.size(), file.getPath());
+        } catch (IOException e) {
+            logger.warn("Failed to save flakiness history: {}", file.getPath(), e);
+        }
+    }
+    
+    private void load() {
+        if (!file.exists()) {
+            logger.info("No flakiness history at {}", file.getPath());
+            return;
+        }
+        
+        try {
+            outcomes.putAll(file.read());
+            logger.info("Loaded outcomes of {} scenarios from {}", outcomes.size(), file.getPath());
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable flakiness history: {}", file.getPath(), e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,375 @@
+package com.saucedemo.execution;
+
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Local coordinator that feeds scenarios to forked worker JVMs over a loopback socket
+ * Workers pull the next scenario from one shared queue whenever they become free, so a worker stuck
+ * on a slow scenario never holds back work another worker could take. A scenario whose worker crashes,
+ * or does not report a result within forked.scenario.timeout.seconds, is put back at the head of the queue
+ * for another worker; a worker that timed out is killed. A lost worker is replaced by a new one while
+ * scenarios are left, up to forked.max.respawns times per run. Each worker writes its cucumber JSON and
+ * Allure results to its own directory; ShardReportMerger combines them at the end of the run.
+ */
+public class ForkedRunCoordinator {
+    private static final Logger logger = LogManager.getLogger(ForkedRunCoordinator.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final int WORKER_CONNECT_TIMEOUT_MILLIS = 120000;
+    private static final long DEFAULT_SCENARIO_MILLIS = 10000;
+    
+    private final int workerCount;
+    private final List<String> runnerClasses;
+    private final Path outputDir;
+    private final ScenarioDurationHistory history = ScenarioDurationHistory.getInstance();
+    private final BlockingDeque<String> queue = new LinkedBlockingDeque<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final CountDownLatch queueReady = new CountDownLatch(1);
+    private final Map<String, String> results = new ConcurrentHashMap<>();
+    private final Map<String, Integer> reassignments = new ConcurrentHashMap<>();
+    private final Map<String, Integer> scenariosPerWorker = new ConcurrentHashMap<>();
+    private final Map<String, Process> workerProcesses = new ConcurrentHashMap<>();
+    private final AtomicInteger nextWorkerIndex = new AtomicInteger();
+    private final AtomicInteger respawns = new AtomicInteger();
+    private int scenarioCount;
+    private int reportedCount;
+    
+    public ForkedRunCoordinator(int workerCount, List<String> runnerClasses, Path outputDir) {
+        this.workerCount = workerCount;
+        this.runnerClasses = runnerClasses;
+        this.outputDir = outputDir;
+    }
+    
+    /**
+     * Run the coordinator from the command line
+     * @param args Optional worker count followed by runner class names
+     */
+    public static void main(String[] args) throws Exception {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : config.getForkedWorkerCount();
+        List<String> runners = args.length > 1
+            ? Arrays.asList(args).subList(1, args.length)
+            : Arrays.stream(config.getForkedRunnerClasses().split(",")).map(String::trim).collect(Collectors.toList());
+        
+        boolean passed = new ForkedRunCoordinator(workers, runners, Paths.get(config.getForkedOutputDir())).run();
+        System.exit(passed ? 0 : 1);
+    }
+    
+    /**
+     * Fork the workers, dispatch all scenarios and merge the worker reports
+     * @return true if every scenario passed
+     */
+    public boolean run() throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        ExecutorService handlers = Executors.newFixedThreadPool(workerCount);
+        
+        try (ServerSocket server = new ServerSocket(0, workerCount, InetAddress.getLoopbackAddress())) {
+            for (int i = 0; i < workerCount; i++) {
+                forkWorker(server.getLocalPort());
+            }
+            
+            server.setSoTimeout(WORKER_CONNECT_TIMEOUT_MILLIS);
+            for (int i = 0; i < workerCount; i++) {
+                try {
+                    Socket socket = server.accept();
+                    handlers.submit(() -> serveWorkers(server, socket));
+                } catch (SocketTimeoutException e) {
+                    logger.error("Only {} of {} workers connected, continuing with those", i, workerCount);
+                    break;
+                }
+            }
+            
+            handlers.shutdown();
+            // Every read from a worker has a deadline, so handlers finish once the queue drains or their
+            // workers are gone; stop waiting early if no worker process is left to serve
+            while (!handlers.awaitTermination(config.getForkedScenarioTimeoutSeconds(), TimeUnit.SECONDS)) {
+                if (liveWorkerCount() == 0) {
+                    logger.error("All workers exited with {} scenarios left", pending.get());
+                    break;
+                }
+                logger.info("Waiting for {} scenarios", pending.get());
+            }
+        } finally {
+            handlers.shutdownNow();
+            for (Process worker : workerProcesses.values()) {
+                if (!worker.waitFor(60, TimeUnit.SECONDS)) {
+                    worker.destroyForcibly();
+                }
+            }
+        }
+        
+        for (String scenario : queue) {
+            results.put(scenario, "NOT_RUN");
+        }
+        history.save();
+        
+        try {
+            ShardReportMerger.merge(outputDir, Paths.get("target"));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to merge worker reports from {}", outputDir, e);
+        }
+        
+        return logSummary(System.currentTimeMillis() - start);
+    }
+    
+    /**
+     * Start a worker JVM on the classpath of this JVM
+     */
+    private void forkWorker(int port) throws IOException {
+        int index = nextWorkerIndex.getAndIncrement();
+        Path workerDir = outputDir.resolve("worker-" + index);
+        Files.createDirectories(workerDir);
+        
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(resolveClasspath());
+        // Forward configuration overrides given to the coordinator, e.g. -Dheadless=true
+        for (String key : config.getPropertyNames()) {
+            String value = System.getProperty(key);
+            if (value != null) {
+                command.add("-D" + key + "=" + value);
+            }
+        }
+        command.add("-Dallure.results.directory=" + workerDir.resolve("allure-results"));
+        command.add(ForkedScenarioWorker.class.getName());
+        command.add(String.valueOf(port));
+        command.add("worker-" + index);
+        command.add(workerDir.toString());
+        command.addAll(runnerClasses);
+        
+        logger.info("Forking worker-{}, output in {}", index, workerDir);
+        Process worker = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(workerDir.resolve("worker.log").toFile())
+            .start();
+        workerProcesses.put("worker-" + index, worker);
+    }
+    
+    /**
+     * Serve workers on one handler thread, replacing a lost worker while scenarios are left
+     */
+    private void serveWorkers(ServerSocket server, Socket socket) {
+        Socket connection = socket;
+        while (!serveWorker(connection) && pending.get() > 0 && !Thread.currentThread().isInterrupted()) {
+            connection = respawnWorker(server);
+            if (connection == null) {
+                logger.warn("Continuing with {} of {} workers", liveWorkerCount(), workerCount);
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Fork a replacement for a lost worker and accept its connection
+     * @return Connection of the new worker, or null if the respawn budget is spent or the worker did not connect
+     */
+    private Socket respawnWorker(ServerSocket server) {
+        if (respawns.incrementAndGet() > config.getForkedMaxRespawns()) {
+            logger.warn("forked.max.respawns ({}) reached, not replacing the lost worker", config.getForkedMaxRespawns());
+            return null;
+        }
+        try {
+            forkWorker(server.getLocalPort());
+            return server.accept();
+        } catch (IOException e) {
+            logger.error("Failed to replace lost worker: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private long liveWorkerCount() {
+        return workerProcesses.values().stream().filter(Process::isAlive).count();
+    }
+    
+    /**
+     * Feed one worker until the queue is drained or the worker is lost
+     * @return true if the worker was stopped after the queue drained
+     */
+    private boolean serveWorker(Socket socket) {
+        String workerId = "unknown";
+        String inFlight = null;
+        
+        try (Socket connection = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(connection.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            connection.setSoTimeout(WORKER_CONNECT_TIMEOUT_MILLIS);
+            workerId = readLine(in).substring("HELLO\t".length());
+            
+            List<String> scenarios = new ArrayList<>();
+            String line;
+            while (!"READY".equals(line = readLine(in))) {
+                scenarios.add(line.substring("SCENARIO\t".length()));
+            }
+            initQueue(scenarios, workerId);
+            if (!queueReady.await(WORKER_CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new IOException("no worker reported its scenarios");
+            }
+            
+            connection.setSoTimeout((int) TimeUnit.SECONDS.toMillis(config.getForkedScenarioTimeoutSeconds()));
+            while (true) {
+                String scenario = queue.pollFirst(1, TimeUnit.SECONDS);
+                if (scenario == null) {
+                    if (pending.get() == 0) {
+                        break;
+                    }
+                    continue;
+                }
+                
+                inFlight = scenario;
+                out.println("RUN\t" + scenario);
+                String[] result;
+                try {
+                    result = readLine(in).split("\t");
+                } catch (SocketTimeoutException e) {
+                    logger.error("{} did not finish {} within {} s, killing it", workerId, scenario.replace('\t', ' '),
+                                config.getForkedScenarioTimeoutSeconds());
+                    killWorker(workerId);
+                    throw e;
+                }
+                complete(scenario, result[1], Long.parseLong(result[2]), workerId);
+                inFlight = null;
+            }
+            out.println("STOP");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Lost {}: {}", workerId, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (inFlight != null) {
+                reassign(inFlight, workerId);
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Build the queue from the first worker's scenario list, longest first
+     */
+    private synchronized void initQueue(List<String> scenarios, String workerId) {
+        if (queueReady.getCount() == 0) {
+            if (scenarios.size() != reportedCount) {
+                logger.warn("{} reported {} scenarios, expected {}", workerId, scenarios.size(), reportedCount);
+            }
+            return;
+        }
+        
+        reportedCount = scenarios.size();
+        if (ImpactSelector.isEnabled()) {
+            scenarios = ImpactSelector.select(scenarios, ForkedRunCoordinator::scenarioId);
+        }
+        
+        long unknownMillis = history.getAverageMillis(DEFAULT_SCENARIO_MILLIS);
+        queue.addAll(LongestFirstScheduler.order(scenarios, scenario -> {
+            long millis = history.getPredictedMillis(scenarioId(scenario));
+            return millis >= 0 ? millis : unknownMillis;
+        }));
+        scenarioCount = scenarios.size();
+        pending.set(scenarioCount);
+        queueReady.countDown();
+        logger.info("Queued {} scenarios for {} workers", scenarioCount, workerCount);
+    }
+    
+    private void complete(String scenario, String status, long millis, String workerId) {
+        results.put(scenario, status);
+        if ("PASSED".equals(status)) {
+            history.record(scenarioId(scenario), millis);
+        }
+        scenariosPerWorker.merge(workerId, 1, Integer::sum);
+        pending.decrementAndGet();
+        logger.info("{} {} on {} in {} ms", status, scenario.replace('\t', ' '), workerId, millis);
+    }
+    
+    private void reassign(String scenario, String workerId) {
+        int attempts = reassignments.merge(scenario, 1, Integer::sum);
+        if (attempts > config.getForkedMaxReassign()) {
+            logger.error("{} lost its worker {} times, giving up", scenario.replace('\t', ' '), attempts);
+            results.put(scenario, "CRASHED");
+            pending.decrementAndGet();
+        } else {
+            logger.warn("Handing {} from lost {} to another worker", scenario.replace('\t', ' '), workerId);
+            queue.addFirst(scenario);
+        }
+    }
+    
+    private void killWorker(String workerId) {
+        Process worker = workerProcesses.get(workerId);
+        if (worker != null) {
+            worker.descendants().forEach(ProcessHandle::destroyForcibly);
+            worker.destroyForcibly();
+        }
+    }
+    
+    private boolean logSummary(long elapsedMillis) {
+        Map<String, Long> statusCounts = results.values().stream()
+            .collect(Collectors.groupingBy(status -> status, TreeMap::new, Collectors.counting()));
+        
+        logger.info("========== FORKED RUN SUMMARY ==========");
+        logger.info("Scenarios: {}, results: {}, wall time: {} ms", scenarioCount, statusCounts, elapsedMillis);
+        new TreeMap<>(scenariosPerWorker).forEach((worker, count) -> logger.info("{} ran {} scenarios", worker, count));
+        
+        // An empty selection passes, a run whose workers never reported their scenarios does not
+        return queueReady.getCount() == 0 && results.size() == scenarioCount
+            && results.values().stream().allMatch(status -> "PASSED".equals(status) || "SKIPPED".equals(status));
+    }
+    
+    private static String readLine(BufferedReader in) throws IOException {
+        String line = in.readLine();
+        if (line == null) {
+            throw new EOFException("worker closed the connection");
+        }
+        return line;
+    }
+    
+    private static String scenarioId(String scenario) {
+        return scenario.substring(scenario.indexOf('\t') + 1);
+    }
+    
+    /**
+     * Get the classpath of this JVM, including the test classpath when started through exec:java
+     */
+    private static String resolveClasspath() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader instanceof URLClassLoader) {
+            List<String> entries = new ArrayList<>();
+            for (URL url : ((URLClassLoader) loader).getURLs()) {
+                entries.add(URLDecoder.decode(url.getPath(), StandardCharsets.UTF_8));
+            }
+            return String.join(File.pathSeparator, entries);
+        }
+        return System.getProperty("java.class.path");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.saucedemo.execution;
+
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import io.cucumber.testng.TestNGCucumberRunner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.SkipException;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Worker JVM forked by ForkedRunCoordinator
+ * Loads the scenarios of the given runner classes, announces their ids to the coordinator and then runs
+ * whichever scenario it is handed next, one at a time, until told to stop. Scenarios run through the
+ * regular Cucumber runtime, so DriverManager and the hooks behave exactly as in a TestNG run.
+ * Report plugins of the runner classes write below the worker's output directory instead of the paths in
+ * their @CucumberOptions, so workers never write the same file; the coordinator merges the reports.
+ *
+ * Protocol (tab separated lines):
+ * worker      HELLO id, SCENARIO runner scenarioId (repeated), READY, RESULT status millis
+ * coordinator RUN runner scenarioId, STOP
+ */
+public class ForkedScenarioWorker {
+    private static final Logger logger = LogManager.getLogger(ForkedScenarioWorker.class);
+    
+    /**
+     * Run a worker
+     * @param args Coordinator port, worker id, worker output directory and runner class names
+     */
+    public static void main(String[] args) throws Exception {
+        int port = Integer.parseInt(args[0]);
+        String workerId = args[1];
+        Path outputDir = Paths.get(args[2]);
+        List<String> runnerClasses = Arrays.asList(args).subList(3, args.length);
+        
+        Map<String, TestNGCucumberRunner> runners = new LinkedHashMap<>();
+        Map<String, Pickle> pickles = new LinkedHashMap<>();
+        for (String runnerClass : runnerClasses) {
+            Class<?> clazz = Class.forName(runnerClass);
+            // The cucumber JSON report goes to cucumber-reports/, where ShardReportMerger picks it up
+            Map<String, String> properties = RunnerPlugins.relocatedProperties(clazz, outputDir);
+            properties.merge("cucumber.plugin", "json:" + outputDir.resolve("cucumber-reports")
+                .resolve(clazz.getSimpleName() + "-" + workerId + ".json"),
+                (relocated, json) -> relocated.isEmpty() ? json : relocated + "," + json);
+            TestNGCucumberRunner runner = new TestNGCucumberRunner(RunnerPlugins.RelocatedOptions.class, properties::get);
+            runners.put(runnerClass, runner);
+            
+            for (Object[] scenario : runner.provideScenarios()) {
+                Pickle pickle = ((PickleWrapper) scenario[0]).getPickle();
+                pickles.put(runnerClass + "\t" + ScenarioId.of(pickle.getUri(), pickle.getLine()), pickle);
+            }
+        }
+        
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            out.println("HELLO\t" + workerId);
+            for (String scenarioKey : pickles.keySet()) {
+                out.println("SCENARIO\t" + scenarioKey);
+            }
+            out.println("READY");
+            logger.info("Worker {} connected with {} scenarios", workerId, pickles.size());
+            
+            String line;
+            while ((line = in.readLine()) != null && line.startsWith("RUN\t")) {
+                String scenarioKey = line.substring("RUN\t".length());
+                String runnerClass = scenarioKey.substring(0, scenarioKey.indexOf('\t'));
+                
+                long start = System.currentTimeMillis();
+                String status = runScenario(runners.get(runnerClass), pickles.get(scenarioKey), scenarioKey);
+                out.println("RESULT\t" + status + "\t" + (System.currentTimeMillis() - start));
+            }
+        } finally {
+            runners.values().forEach(TestNGCucumberRunner::finish);
+            logger.info("Worker {} finished", workerId);
+        }
+    }
+    
+    private static String runScenario(TestNGCucumberRunner runner, Pickle pickle, String scenarioKey) {
+        if (runner == null || pickle == null) {
+            logger.error("Unknown scenario requested: {}", scenarioKey);
+            return "FAILED";
+        }
+        
+        try {
+            RunGuard.checkNotAborted();
+            runner.runScenario(pickle);
+            return "PASSED";
+        } catch (SkipException e) {
+            logger.warn("Scenario skipped: {}", pickle.getName());
+            return "SKIPPED";
+        } catch (Throwable t) {
+            logger.error("Scenario failed: {}", pickle.getName(), t);
+            return "FAILED";
+        }
+    }
+}
\ No newline at end of file
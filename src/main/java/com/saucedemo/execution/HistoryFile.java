@@ -0,0 +1,74 @@
+package com.saucedemo.execution;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JSON map file under test-history/ shared by processes on one machine (shards, forked workers)
+ * Updates are merged into the file's current content under a file lock and written atomically, so
+ * processes only overwrite the entries they changed themselves
+ */
+class HistoryFile<V> {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private final Path file;
+    private final TypeReference<Map<String, V>> type;
+    
+    HistoryFile(Path file, TypeReference<Map<String, V>> type) {
+        this.file = file;
+        this.type = type;
+    }
+    
+    Path getPath() {
+        return file;
+    }
+    
+    boolean exists() {
+        return Files.exists(file);
+    }
+    
+    /**
+     * Read the file
+     * @return Entries sorted by key, empty if the file does not exist
+     */
+    Map<String, V> read() throws IOException {
+        if (!Files.exists(file)) {
+            return new TreeMap<>();
+        }
+        return new TreeMap<>(objectMapper.readValue(file.toFile(), type));
+    }
+    
+    /**
+     * Merge updated and removed entries into the file
+     * @param updates Entries to add or replace
+     * @param removals Keys to remove
+     */
+    void merge(Map<String, V> updates, Collection<String> removals) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        
+        try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = lockChannel.lock()) {
+            Map<String, V> merged = read();
+            merged.keySet().removeAll(removals);
+            merged.putAll(updates);
+            
+            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempFile.toFile(), merged);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.saucedemo.execution;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-scenario footprint of the classes and locators a scenario exercised, carried from one run to the next
+ * Footprints are recorded by ImpactRecorder and read by ImpactSelector to pick the scenarios a change affects
+ */
+public class ImpactMap {
+    private static final Logger logger = LogManager.getLogger(ImpactMap.class);
+    private static volatile ImpactMap instance;
+    
+    private final HistoryFile<Footprint> file;
+    private final Map<String, Footprint> footprints = new ConcurrentHashMap<>();
+    private final Map<String, Footprint> recorded = new ConcurrentHashMap<>();
+    
+    private ImpactMap(HistoryFile<Footprint> file) {
+        this.file = file;
+        load();
+    }
+    
+    /**
+     * Get the impact map shared by all runners of this JVM
+     * @return ImpactMap instance
+     */
+    public static ImpactMap getInstance() {
+        if (instance == null) {
+            synchronized (ImpactMap.class) {
+                if (instance == null) {
+                    instance = new ImpactMap(new HistoryFile<>(Paths.get(ConfigManager.getInstance().getImpactMapFile()),
+                        new TypeReference<Map<String, Footprint>>() {}));
+                }
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Get the footprint of a scenario
+     * @param scenarioId Scenario id
+     * @return Footprint, or null if the scenario was never recorded
+     */
+    public Footprint getFootprint(String scenarioId) {
+        return footprints.get(scenarioId);
+    }
+    
+    /**
+     * Get all recorded footprints
+     * @return Footprints by scenario id
+     */
+    public Map<String, Footprint> getFootprints() {
+        return footprints;
+    }
+    
+    /**
+     * Record the footprint of a finished scenario
+     * A passed scenario replaces its previous footprint; a failed one stopped early, so its footprint is
+     * added to the previous one rather than shrinking it
+     * @param scenarioId Scenario id
+     * @param footprint Classes and locators the scenario exercised
+     * @param passed Whether the scenario passed
+     */
+    public void record(String scenarioId, Footprint footprint, boolean passed) {
+        Footprint previous = footprints.get(scenarioId);
+        if (!passed && previous != null) {
+            footprint.classes.addAll(previous.classes);
+            footprint.locators.addAll(previous.locators);
+        }
+        footprints.put(scenarioId, footprint);
+        recorded.put(scenarioId, footprint);
+    }
+    
+    /**
+     * Write the impact map file
+     * Only scenarios recorded by this JVM overwrite the file's entries, so processes sharing the file
+     * do not drop each other's footprints
+     */
+    public synchronized void save() {
+        if (recorded.isEmpty()) {
+            return;
+        }
+        
+        try {
+            file.merge(recorded, Collections.emptySet());
+            logger.info("Saved footprints of {} scenarios to {}", recorded.size(), file.getPath());
+        } catch (IOException e) {
+            logger.warn("Failed to save impact map: {}", file.getPath(), e);
+        }
+    }
+    
+    private void load() {
+        if (!file.exists()) {
+            logger.info("No impact map at {}", file.getPath());
+            return;
+        }
+        
+        try {
+            footprints.putAll(file.read());
+            logger.info("Loaded footprints of {} scenarios from {}", footprints.size(), file.getPath());
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable impact map: {}", file.getPath(), e);
+        }
+    }
+    
+    /**
+     * Classes (step definitions, hooks, page objects) and locators exercised by one scenario
+     */
+    public static class Footprint {
+        public Set<String> classes = new TreeSet<>();
+        public Set<String> locators = new TreeSet<>();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.saucedemo.execution;
+
+import com.saucedemo.config.ConfigManager;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+/**
+ * Cucumber plugin that records which step definitions, hooks, page objects and locators each scenario exercised
+ * Cucumber delivers events to concurrent listeners on the thread running the scenario, so the footprint
+ * of the running scenario is kept per thread. Page objects report themselves from BasePage and locators
+ * are captured from every element lookup of a driver wrapped by decorate().
+ */
+public class ImpactRecorder implements ConcurrentEventListener {
+    private static final String PROJECT_PACKAGE = "com.saucedemo.";
+    private static final ThreadLocal<ImpactMap.Footprint> footprintThreadLocal = new ThreadLocal<>();
+    
+    /**
+     * Check if scenario footprints are recorded in this run
+     * @return true if impact.record is set or the result cache, which hashes footprints, is enabled
+     */
+    public static boolean isEnabled() {
+        ConfigManager config = ConfigManager.getInstance();
+        return config.isImpactRecordingEnabled() || config.isResultCacheEnabled();
+    }
+    
+    /**
+     * Wrap a driver so every element lookup is recorded against the running scenario
+     * @param driver WebDriver instance
+     * @return Decorated driver
+     */
+    public static WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(new LocatorListener()).decorate(driver);
+    }
+    
+    /**
+     * Record a project class used by the running scenario, with its project superclasses
+     * @param type Class, e.g. a page object
+     */
+    public static void recordClass(Class<?> type) {
+        ImpactMap.Footprint footprint = footprintThreadLocal.get();
+        if (footprint == null) {
+            return;
+        }
+        for (Class<?> current = type; current != null && current.getName().startsWith(PROJECT_PACKAGE);
+             current = current.getSuperclass()) {
+            footprint.classes.add(topLevelName(current.getName()));
+        }
+    }
+    
+    /**
+     * Record a locator looked up by the running scenario
+     * @param locator Element locator
+     */
+    public static void recordLocator(By locator) {
+        ImpactMap.Footprint footprint = footprintThreadLocal.get();
+        if (footprint != null) {
+            footprint.locators.add(locator.toString());
+        }
+    }
+    
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> footprintThreadLocal.set(new ImpactMap.Footprint()));
+        publisher.registerHandlerFor(TestStepStarted.class, this::onStepStarted);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> ImpactMap.getInstance().save());
+    }
+    
+    private void onStepStarted(TestStepStarted event) {
+        ImpactMap.Footprint footprint = footprintThreadLocal.get();
+        String codeLocation = event.getTestStep().getCodeLocation();
+        if (footprint == null || codeLocation == null) {
+            return;
+        }
+        
+        // Java code locations look like com.saucedemo.stepdefinitions.LoginStepDefinitions.method(java.lang.String)
+        int parameters = codeLocation.indexOf('(');
+        String method = parameters >= 0 ? codeLocation.substring(0, parameters) : codeLocation;
+        int separator = method.lastIndexOf('.');
+        if (separator > 0) {
+            footprint.classes.add(topLevelName(method.substring(0, separator)));
+        }
+    }
+    
+    private void onTestCaseFinished(TestCaseFinished event) {
+        ImpactMap.Footprint footprint = footprintThreadLocal.get();
+        footprintThreadLocal.remove();
+        if (footprint == null) {
+            return;
+        }
+        
+        TestCase testCase = event.getTestCase();
+        Status status = event.getResult().getStatus();
+        if (status == Status.SKIPPED && footprint.classes.isEmpty()) {
+            // Skipped before anything ran, the footprint says nothing
+            return;
+        }
+        ImpactMap.getInstance().record(ScenarioId.of(testCase.getUri(), testCase.getLine()), footprint,
+            status == Status.PASSED);
+    }
+    
+    private static String topLevelName(String className) {
+        int nested = className.indexOf('$');
+        return nested >= 0 ? className.substring(0, nested) : className;
+    }
+    
+    /**
+     * Records the locator of every element lookup, including @FindBy proxies and lookups inside elements
+     */
+    private static class LocatorListener implements WebDriverListener {
+        
+        @Override
+        public void beforeFindElement(WebDriver driver, By locator) {
+            recordLocator(locator);
+        }
+        
+        @Override
+        public void beforeFindElements(WebDriver driver, By locator) {
+            recordLocator(locator);
+        }
+        
+        @Override
+        public void beforeFindElement(WebElement element, By locator) {
+            recordLocator(locator);
+        }
+        
+        @Override
+        public void beforeFindElements(WebElement element, By locator) {
+            recordLocator(locator);
+        }
+    }
+}
\ No newline at end of file
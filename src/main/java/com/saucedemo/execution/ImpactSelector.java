@@ -0,0 +1,245 @@
+package com.saucedemo.execution;
+
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Selects the scenarios affected by the changes since a base git ref, using the footprints in ImpactMap
+ * A changed feature file selects its scenarios. A changed class selects the scenarios that exercised it;
+ * when every changed line of the class is a locator declaration, only scenarios that looked up one of
+ * the old or new locators are selected. Any change that cannot be mapped (a class no scenario exercised,
+ * config, test data, build files) falls back to a full run. Scenarios without a footprint always run.
+ */
+public class ImpactSelector {
+    private static final Logger logger = LogManager.getLogger(ImpactSelector.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    private static final Pattern BY_DECLARATION = Pattern.compile(
+        "(?:[\\w\\s]*\\bBy\\s+\\w+\\s*=\\s*)?By\\.(\\w+)\\(\\s*\"((?:[^\"\\\\]|\\\\.)*)\"\\s*\\)[;,]?");
+    private static final Pattern FIND_BY_DECLARATION = Pattern.compile(
+        "@FindBy\\(\\s*(\\w+)\\s*=\\s*\"((?:[^\"\\\\]|\\\\.)*)\"\\s*\\)");
+    private static final Map<String, String> FIND_BY_HOW = new HashMap<>();
+    
+    static {
+        FIND_BY_HOW.put("css", "cssSelector");
+    }
+    
+    private static volatile Impact impact;
+    
+    /**
+     * Check if only impacted scenarios should run
+     * @return true if test.selection is impacted
+     */
+    public static boolean isEnabled() {
+        return "impacted".equalsIgnoreCase(config.getTestSelection());
+    }
+    
+    /**
+     * Select the scenarios impacted by the current changes
+     * @param scenarios Scenarios in dispatch order
+     * @param scenarioId Stable id of a scenario
+     * @return Impacted scenarios in the original order, or all scenarios if the changes cannot be mapped
+     */
+    public static <T> List<T> select(List<T> scenarios, Function<T, String> scenarioId) {
+        Impact current = getImpact();
+        if (current.fullRun) {
+            return scenarios;
+        }
+        
+        ImpactMap impactMap = ImpactMap.getInstance();
+        List<T> selected = scenarios.stream()
+            .filter(scenario -> {
+                String id = scenarioId.apply(scenario);
+                return impactMap.getFootprint(id) == null
+                    || current.scenarioIds.contains(id)
+                    || current.features.contains(id.substring(0, id.lastIndexOf(':')));
+            })
+            .collect(Collectors.toList());
+        logger.info("Impact selection keeps {} of {} scenarios", selected.size(), scenarios.size());
+        return selected;
+    }
+    
+    /**
+     * Compute the impact of the current changes once per JVM
+     */
+    private static Impact getImpact() {
+        if (impact == null) {
+            synchronized (ImpactSelector.class) {
+                if (impact == null) {
+                    impact = computeImpact();
+                }
+            }
+        }
+        return impact;
+    }
+    
+    private static Impact computeImpact() {
+        String baseRef = config.getImpactBaseRef();
+        List<String> changedFiles;
+        String base;
+        try {
+            base = git("merge-base", baseRef, "HEAD").get(0);
+            Set<String> files = new LinkedHashSet<>(git("diff", "--name-only", base));
+            files.addAll(git("ls-files", "--others", "--exclude-standard"));
+            changedFiles = new ArrayList<>(files);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not diff against {}, running all scenarios: {}", baseRef, e.getMessage());
+            return Impact.FULL_RUN;
+        }
+        
+        Map<String, ImpactMap.Footprint> footprints = ImpactMap.getInstance().getFootprints();
+        if (footprints.isEmpty()) {
+            logger.warn("Impact map is empty, running all scenarios; record one with impact.record=true");
+            return Impact.FULL_RUN;
+        }
+        
+        List<String> ignoredSuffixes = Arrays.stream(config.getImpactIgnoredSuffixes().split(","))
+            .map(String::trim)
+            .filter(suffix -> !suffix.isEmpty())
+            .collect(Collectors.toList());
+        Impact result = new Impact();
+        
+        for (String path : changedFiles) {
+            if (ignoredSuffixes.stream().anyMatch(path::endsWith)) {
+                continue;
+            }
+            if (path.endsWith(".feature")) {
+                result.features.add(path);
+                continue;
+            }
+            
+            int sourceRoot = path.indexOf("/java/");
+            if (!path.endsWith(".java") || sourceRoot < 0) {
+                logger.info("{} changed and is not mapped to scenarios, running all scenarios", path);
+                return Impact.FULL_RUN;
+            }
+            
+            String className = path.substring(sourceRoot + "/java/".length(), path.length() - ".java".length())
+                .replace('/', '.');
+            Set<String> byClass = footprints.entrySet().stream()
+                .filter(entry -> entry.getValue().classes.contains(className))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+            if (byClass.isEmpty()) {
+                logger.info("{} changed and no scenario exercised it, running all scenarios", className);
+                return Impact.FULL_RUN;
+            }
+            
+            Set<String> locators = changedLocators(base, path);
+            Set<String> byLocator = locators == null ? new HashSet<>() : byClass.stream()
+                .filter(id -> footprints.get(id).locators.stream().anyMatch(locators::contains))
+                .collect(Collectors.toSet());
+            if (!byLocator.isEmpty()) {
+                logger.info("{} changed locators {}, impacting {} scenarios", className, locators, byLocator.size());
+                result.scenarioIds.addAll(byLocator);
+            } else {
+                logger.info("{} changed, impacting {} scenarios", className, byClass.size());
+                result.scenarioIds.addAll(byClass);
+            }
+        }
+        
+        logger.info("Changes since {} impact {} scenarios and {} feature files",
+                   baseRef, result.scenarioIds.size(), result.features.size());
+        return result;
+    }
+    
+    /**
+     * Get the locators declared on the changed lines of a source file
+     * @return Locators in By.toString() form, or null if a changed line is not a locator declaration
+     */
+    private static Set<String> changedLocators(String base, String path) {
+        List<String> diff;
+        try {
+            diff = git("diff", "-U0", base, "--", path);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+        
+        Set<String> locators = new HashSet<>();
+        for (String line : diff) {
+            if (line.startsWith("+++") || line.startsWith("---")
+                    || !(line.startsWith("+") || line.startsWith("-"))) {
+                continue;
+            }
+            String code = line.substring(1).trim();
+            if (code.isEmpty() || code.startsWith("//") || code.startsWith("*") || code.startsWith("/*")) {
+                continue;
+            }
+            
+            Matcher by = BY_DECLARATION.matcher(code);
+            Matcher findBy = FIND_BY_DECLARATION.matcher(code);
+            if (by.matches()) {
+                locators.add("By." + by.group(1) + ": " + unescape(by.group(2)));
+            } else if (findBy.matches()) {
+                locators.add("By." + FIND_BY_HOW.getOrDefault(findBy.group(1), findBy.group(1)) + ": "
+                    + unescape(findBy.group(2)));
+            } else {
+                return null;
+            }
+        }
+        return locators;
+    }
+    
+    private static String unescape(String javaString) {
+        return javaString.replace("\\\"", "\"").replace("\\\\", "\\");
+    }
+    
+    private static List<String> git(String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        
+        List<String> lines;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            lines = reader.lines().collect(Collectors.toList());
+        }
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException(String.join(" ", command) + " failed: " + String.join(" ", lines));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running " + String.join(" ", command), e);
+        }
+        return lines;
+    }
+    
+    /**
+     * Scenarios and feature files impacted by the current changes
+     */
+    private static class Impact {
+        private static final Impact FULL_RUN = new Impact(true);
+        
+        private final boolean fullRun;
+        private final Set<String> scenarioIds = new HashSet<>();
+        private final Set<String> features = new HashSet<>();
+        
+        Impact() {
+            this(false);
+        }
+        
+        private Impact(boolean fullRun) {
+            this.fullRun = fullRun;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.saucedemo.execution;
+
+import com.saucedemo.config.ConfigManager;
+import com.saucedemo.utils.DriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares driver startup time of the legacy and performance browser launch profiles
+ * Each iteration starts and quits one driver per profile, alternating so machine load affects both alike.
+ * Startup covers session creation, timeouts and window sizing, i.e. everything initializeDriver does.
+ */
+public class LaunchProfileBenchmark {
+    private static final Logger logger = LogManager.getLogger(LaunchProfileBenchmark.class);
+    private static final List<String> PROFILES = Arrays.asList("legacy", "performance");
+    private static final String PROFILE_PROPERTY = "browser.launch.profile";
+    
+    /**
+     * Run the comparison from the command line
+     * @param args Optional browser name and number of launches per profile
+     */
+    public static void main(String[] args) {
+        String browser = args.length > 0 ? args[0] : ConfigManager.getInstance().getBrowser();
+        int launches = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        
+        Map<String, List<Long>> startupMillis = compare(browser, launches);
+        logger.info("Startup time of {} over {} launches per profile:", browser, launches);
+        startupMillis.forEach((profile, millis) -> {
+            List<Long> sorted = new ArrayList<>(millis);
+            Collections.sort(sorted);
+            double mean = sorted.stream().mapToLong(Long::longValue).average().orElse(0);
+            logger.info("  {}: median {} ms, mean {} ms, min {} ms, max {} ms", profile,
+                       sorted.get(sorted.size() / 2), String.format("%.0f", mean), sorted.get(0), sorted.get(sorted.size() - 1));
+        });
+    }
+    
+    /**
+     * Start and quit drivers with each launch profile
+     * One untimed launch first downloads the driver binary and warms the OS file cache
+     * @param browser Browser name
+     * @param launches Timed launches per profile
+     * @return Startup times in milliseconds by profile
+     */
+    public static Map<String, List<Long>> compare(String browser, int launches) {
+        String previousProfile = System.getProperty(PROFILE_PROPERTY);
+        Map<String, List<Long>> startupMillis = new LinkedHashMap<>();
+        PROFILES.forEach(profile -> startupMillis.put(profile, new ArrayList<>()));
+        
+        try {
+            launch(browser, PROFILES.get(0));
+            for (int i = 0; i < launches; i++) {
+                for (String profile : PROFILES) {
+                    startupMillis.get(profile).add(launch(browser, profile));
+                }
+            }
+        } finally {
+            if (previousProfile != null) {
+                System.setProperty(PROFILE_PROPERTY, previousProfile);
+            } else {
+                System.clearProperty(PROFILE_PROPERTY);
+            }
+        }
+        return startupMillis;
+    }
+    
+    private static long launch(String browser, String profile) {
+        System.setProperty(PROFILE_PROPERTY, profile);
+        long start = System.nanoTime();
+        try {
+            DriverManager.initializeDriver(browser);
+            return (System.nanoTime() - start) / 1_000_000;
+        } finally {
+            DriverManager.quitDriver();
+        }
+    }
+}
\ No newline at end of file
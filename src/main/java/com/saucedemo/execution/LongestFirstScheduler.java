@@ -0,0 +1,50 @@
+package com.saucedemo.execution;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+
+/**
+ * Longest-processing-time-first ordering for a pool of workers that pull work dynamically
+ * Starting the slowest scenarios first keeps a long scenario from landing at the tail of the run
+ * while the other workers sit idle.
+ */
+public class LongestFirstScheduler {
+    
+    /**
+     * Order items by predicted duration, longest first
+     * The sort is stable, so items with equal predictions keep their original order
+     * @param items Items to schedule
+     * @param predictedMillis Predicted duration of an item
+     * @return New list in dispatch order
+     */
+    public static <T> List<T> order(Collection<T> items, ToLongFunction<T> predictedMillis) {
+        List<T> ordered = new ArrayList<>(items);
+        ordered.sort(Comparator.comparingLong(predictedMillis).reversed());
+        return ordered;
+    }
+    
+    /**
+     * Predict the makespan of dispatching durations in order to workers that each take the next item when idle
+     * @param durationsInOrder Durations in dispatch order
+     * @param workers Number of workers
+     * @return Predicted makespan in milliseconds
+     */
+    public static long predictMakespan(List<Long> durationsInOrder, int workers) {
+        PriorityQueue<Long> workerFinishTimes = new PriorityQueue<>();
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            workerFinishTimes.add(0L);
+        }
+        
+        long makespan = 0;
+        for (long duration : durationsInOrder) {
+            long finish = workerFinishTimes.poll() + duration;
+            workerFinishTimes.add(finish);
+            makespan = Math.max(makespan, finish);
+        }
+        return makespan;
+    }
+}
\ No newline at end of file
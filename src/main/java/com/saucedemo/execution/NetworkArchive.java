@@ -0,0 +1,346 @@
+package com.saucedemo.execution;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Record-and-replay archive of the HTTP responses seen by the browser
+ * In record mode every response is stored under test-history/network-archive, keyed on method, URL and a
+ * hash of the request body. In replay mode requests found in the archive are answered from it without
+ * touching the network; misses go to the network (or fail in strict mode) and are reported at the end.
+ * Interception uses the DevTools Fetch domain, so it covers HTTPS without a certificate-installing proxy;
+ * it is available on Chrome and Edge, other browsers always use the network.
+ */
+public class NetworkArchive {
+    private static final Logger logger = LogManager.getLogger(NetworkArchive.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final List<String> CDP_BROWSERS = Arrays.asList("chrome", "msedge", "microsoftedge");
+    // Replayed bodies are already decoded, so these headers no longer describe them
+    private static final Set<String> DROPPED_HEADERS = Set.of("content-encoding", "content-length", "transfer-encoding");
+    private static final int REPORTED_MISSES = 20;
+    private static volatile NetworkArchive instance;
+    
+    private final Mode mode;
+    private final Path bodyDir;
+    private final HistoryFile<Entry> index;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Entry> recorded = new ConcurrentHashMap<>();
+    private final Set<String> misses = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger missCount = new AtomicInteger();
+    private final ThreadLocal<WebDriver> attachedDriver = new ThreadLocal<>();
+    
+    /**
+     * Archive mode selected by network.mode
+     */
+    public enum Mode {
+        OFF, RECORD, REPLAY
+    }
+    
+    private NetworkArchive(Mode mode, Path archiveDir) {
+        this.mode = mode;
+        this.bodyDir = archiveDir.resolve("bodies");
+        this.index = new HistoryFile<>(archiveDir.resolve("index.json"), new TypeReference<Map<String, Entry>>() {});
+        if (mode == Mode.REPLAY) {
+            load();
+        }
+    }
+    
+    /**
+     * Check if responses are recorded or replayed
+     * @return true if network.mode is record or replay
+     */
+    public static boolean isEnabled() {
+        return getMode() != Mode.OFF;
+    }
+    
+    /**
+     * Get the configured archive mode
+     * @return Mode
+     */
+    public static Mode getMode() {
+        return Mode.valueOf(config.getNetworkMode().trim().toUpperCase());
+    }
+    
+    /**
+     * Get the network archive shared by all runners of this JVM
+     * @return NetworkArchive instance
+     */
+    public static NetworkArchive getInstance() {
+        if (instance == null) {
+            synchronized (NetworkArchive.class) {
+                if (instance == null) {
+                    instance = new NetworkArchive(getMode(), Paths.get(config.getNetworkArchiveDir()));
+                }
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Build the archive key of a request
+     * @param method HTTP method
+     * @param url Request URL
+     * @param body Request body, null if none
+     * @return Key of the form "METHOD url#bodyhash"
+     */
+    public static String key(String method, String url, String body) {
+        byte[] bodyBytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        return method.toUpperCase() + " " + url + "#" + sha256(bodyBytes).substring(0, 16);
+    }
+    
+    /**
+     * Intercept the requests of the current thread's driver
+     * Interception is set up once per driver; failures are logged and the driver uses the network.
+     * @param driver WebDriver instance
+     */
+    public void attach(WebDriver driver) {
+        if (mode == Mode.OFF || attachedDriver.get() == driver) {
+            return;
+        }
+        if (!supportsCdp(driver)) {
+            logger.debug("Network archive needs DevTools, {} uses the network", driver.getClass().getSimpleName());
+            return;
+        }
+        
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            
+            Map<String, Object> pattern = new HashMap<>();
+            pattern.put("urlPattern", config.getNetworkArchiveUrlPattern());
+            pattern.put("requestStage", mode == Mode.RECORD ? "Response" : "Request");
+            devTools.addListener(new Event<Map<String, Object>>("Fetch.requestPaused", input -> input.read(Json.MAP_TYPE)),
+                paused -> onRequestPaused(devTools, paused));
+            devTools.send(new Command<>("Fetch.enable",
+                Collections.singletonMap("patterns", Collections.singletonList(pattern))));
+            
+            attachedDriver.set(driver);
+            logger.debug("Network archive attached in {} mode", mode);
+        } catch (RuntimeException e) {
+            logger.warn("Network archive unavailable, using the network: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Write responses recorded by this JVM to the archive index
+     */
+    public synchronized void save() {
+        if (recorded.isEmpty()) {
+            return;
+        }
+        
+        try {
+            index.merge(recorded, Collections.emptySet());
+            logger.info("Recorded {} responses to {}", recorded.size(), index.getPath());
+            recorded.clear();
+        } catch (IOException e) {
+            logger.warn("Failed to save network archive: {}", index.getPath(), e);
+        }
+    }
+    
+    /**
+     * Log replay hits and the requests missing from the archive
+     */
+    public void logSummary() {
+        if (mode != Mode.REPLAY) {
+            return;
+        }
+        logger.info("Network replay: {} requests served from the archive, {} misses ({} distinct)",
+                   hits.get(), missCount.get(), misses.size());
+        misses.stream().sorted().limit(REPORTED_MISSES).forEach(miss -> logger.warn("Not in network archive: {}", miss));
+        if (misses.size() > REPORTED_MISSES) {
+            logger.warn("... and {} more, record again with -Dnetwork.mode=record", misses.size() - REPORTED_MISSES);
+        }
+    }
+    
+    private void onRequestPaused(DevTools devTools, Map<String, Object> paused) {
+        String requestId = (String) paused.get("requestId");
+        try {
+            Map<?, ?> request = (Map<?, ?>) paused.get("request");
+            String key = key((String) request.get("method"), (String) request.get("url"), (String) request.get("postData"));
+            
+            if (mode == Mode.RECORD) {
+                record(devTools, requestId, key, paused);
+            } else if (replay(devTools, requestId, key)) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Network archive passed request {} through: {}", requestId, e.getMessage());
+        }
+        
+        if (mode == Mode.REPLAY && config.isNetworkReplayStrict()) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("requestId", requestId);
+            params.put("errorReason", "InternetDisconnected");
+            devTools.send(new Command<>("Fetch.failRequest", params));
+        } else {
+            devTools.send(new Command<>("Fetch.continueRequest", Collections.singletonMap("requestId", requestId)));
+        }
+    }
+    
+    private void record(DevTools devTools, String requestId, String key, Map<String, Object> paused) {
+        Object status = paused.get("responseStatusCode");
+        if (!(status instanceof Number) || paused.get("responseErrorReason") != null) {
+            return;
+        }
+        
+        Entry entry = new Entry();
+        entry.status = ((Number) status).intValue();
+        Object headers = paused.get("responseHeaders");
+        if (headers instanceof List) {
+            for (Object header : (List<?>) headers) {
+                Map<?, ?> pair = (Map<?, ?>) header;
+                String name = String.valueOf(pair.get("name"));
+                if (!DROPPED_HEADERS.contains(name.toLowerCase())) {
+                    Map<String, String> kept = new LinkedHashMap<>();
+                    kept.put("name", name);
+                    kept.put("value", String.valueOf(pair.get("value")));
+                    entry.headers.add(kept);
+                }
+            }
+        }
+        
+        // Redirects and empty responses have no body to fetch
+        if (entry.status < 300 || entry.status >= 400) {
+            Map<String, Object> response = devTools.send(new Command<Map<String, Object>>("Fetch.getResponseBody",
+                Collections.singletonMap("requestId", requestId), input -> input.read(Json.MAP_TYPE)));
+            String body = (String) response.get("body");
+            byte[] bytes = Boolean.TRUE.equals(response.get("base64Encoded"))
+                ? Base64.getDecoder().decode(body) : body.getBytes(StandardCharsets.UTF_8);
+            entry.body = writeBody(bytes);
+        }
+        
+        entries.put(key, entry);
+        recorded.put(key, entry);
+    }
+    
+    private boolean replay(DevTools devTools, String requestId, String key) {
+        Entry entry = entries.get(key);
+        byte[] body = entry != null ? readBody(entry) : null;
+        if (entry == null || (entry.body != null && body == null)) {
+            missCount.incrementAndGet();
+            if (misses.add(key)) {
+                logger.debug("Network archive miss: {}", key);
+            }
+            return false;
+        }
+        
+        Map<String, Object> params = new HashMap<>();
+        params.put("requestId", requestId);
+        params.put("responseCode", entry.status);
+        params.put("responseHeaders", entry.headers);
+        if (body != null) {
+            params.put("body", Base64.getEncoder().encodeToString(body));
+        }
+        devTools.send(new Command<>("Fetch.fulfillRequest", params));
+        hits.incrementAndGet();
+        return true;
+    }
+    
+    /**
+     * Store a body under its content hash, so identical bundles are stored once
+     */
+    private String writeBody(byte[] bytes) {
+        String name = sha256(bytes);
+        Path file = bodyDir.resolve(name);
+        try {
+            Files.createDirectories(bodyDir);
+            if (!Files.exists(file)) {
+                Path tempFile = Files.createTempFile(bodyDir, name, ".tmp");
+                Files.write(tempFile, bytes);
+                try {
+                    Files.move(tempFile, file);
+                } catch (FileAlreadyExistsException e) {
+                    Files.delete(tempFile);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write archived body: " + file, e);
+        }
+        return name;
+    }
+    
+    private byte[] readBody(Entry entry) {
+        if (entry.body == null) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(bodyDir.resolve(entry.body));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    private void load() {
+        if (!index.exists()) {
+            logger.warn("No network archive at {}, every request is a miss", index.getPath());
+            return;
+        }
+        
+        try {
+            entries.putAll(index.read());
+            logger.info("Loaded {} archived responses from {}", entries.size(), index.getPath());
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable network archive: {}", index.getPath(), e);
+        }
+    }
+    
+    private static boolean supportsCdp(WebDriver driver) {
+        if (!(driver instanceof HasDevTools) || !(driver instanceof HasCapabilities)) {
+            return false;
+        }
+        String browserName = ((HasCapabilities) driver).getCapabilities().getBrowserName();
+        return browserName != null && CDP_BROWSERS.contains(browserName.toLowerCase());
+    }
+    
+    private static String sha256(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Archived response: status, headers as CDP name/value pairs and the content hash of the body
+     */
+    public static class Entry {
+        public int status;
+        public List<Map<String, String>> headers = new ArrayList<>();
+        public String body;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,238 @@
+package com.saucedemo.execution;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache of passed scenarios for local iteration
+ * A scenario's input hash covers its feature file, the source of every class in its ImpactMap footprint
+ * (step definitions, hooks, page objects), the files under result.cache.inputs (test data, utilities)
+ * and the effective values of result.cache.config.keys. A scenario whose hash matches the hash of its
+ * last passing run is not executed again. Scenarios without a footprint are never cached.
+ */
+public class ResultCache {
+    private static final Logger logger = LogManager.getLogger(ResultCache.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final List<String> SOURCE_ROOTS = Arrays.asList("src/main/java/", "src/test/java/");
+    private static volatile ResultCache instance;
+    
+    /**
+     * TestNG result attribute holding the input hash of a scenario served from the cache
+     */
+    public static final String CACHED_ATTRIBUTE = "result.cache.hash";
+    
+    private final HistoryFile<String> file;
+    private final Map<String, String> passedHashes = new ConcurrentHashMap<>();
+    private final Map<String, String> updates = new ConcurrentHashMap<>();
+    private final Set<String> removals = ConcurrentHashMap.newKeySet();
+    private final Map<Path, String> fileHashes = new ConcurrentHashMap<>();
+    private volatile String sharedHash;
+    
+    private ResultCache(HistoryFile<String> file) {
+        this.file = file;
+        load();
+    }
+    
+    /**
+     * Check if passed scenarios with unchanged inputs are skipped
+     * @return true if result.cache.enabled is set
+     */
+    public static boolean isEnabled() {
+        return config.isResultCacheEnabled();
+    }
+    
+    /**
+     * Get the result cache shared by all runners of this JVM
+     * @return ResultCache instance
+     */
+    public static ResultCache getInstance() {
+        if (instance == null) {
+            synchronized (ResultCache.class) {
+                if (instance == null) {
+                    instance = new ResultCache(new HistoryFile<>(Paths.get(config.getResultCacheFile()),
+                        new TypeReference<Map<String, String>>() {}));
+                }
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Look up a scenario in the cache
+     * @param scenarioId Scenario id
+     * @return Input hash if the scenario passed before with identical inputs, null if it must run
+     */
+    public String lookup(String scenarioId) {
+        String passedHash = passedHashes.get(scenarioId);
+        if (passedHash == null) {
+            return null;
+        }
+        String hash = inputHash(scenarioId);
+        return passedHash.equals(hash) ? hash : null;
+    }
+    
+    /**
+     * Record the outcome of an executed scenario
+     * Must be called after the scenario finished, so its footprint is the one of this run
+     * @param scenarioId Scenario id
+     * @param passed Whether the scenario passed
+     */
+    public void record(String scenarioId, boolean passed) {
+        String hash = passed ? inputHash(scenarioId) : null;
+        if (hash != null) {
+            passedHashes.put(scenarioId, hash);
+            updates.put(scenarioId, hash);
+            removals.remove(scenarioId);
+        } else {
+            passedHashes.remove(scenarioId);
+            updates.remove(scenarioId);
+            removals.add(scenarioId);
+        }
+    }
+    
+    /**
+     * Write the cache file
+     */
+    public synchronized void save() {
+        if (updates.isEmpty() && removals.isEmpty()) {
+            return;
+        }
+        
+        try {
+            file.merge(updates, removals);
+            logger.info("Saved result cache ({} passed, {} invalidated) to {}",
+                       updates.size(), removals.size(), file.getPath());
+        } catch (IOException e) {
+            logger.warn("Failed to save result cache: {}", file.getPath(), e);
+        }
+    }
+    
+    /**
+     * Compute the input hash of a scenario
+     * @return Hex SHA-256, or null if the scenario has no footprint or an input cannot be read
+     */
+    private String inputHash(String scenarioId) {
+        ImpactMap.Footprint footprint = ImpactMap.getInstance().getFootprint(scenarioId);
+        if (footprint == null) {
+            return null;
+        }
+        
+        try {
+            MessageDigest digest = newDigest();
+            update(digest, "feature", fileHash(Paths.get(scenarioId.substring(0, scenarioId.lastIndexOf(':')))));
+            for (String className : footprint.classes) {
+                update(digest, className, fileHash(sourceFile(className)));
+            }
+            update(digest, "shared", getSharedHash());
+            return toHex(digest.digest());
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Scenario {} is not cacheable: {}", scenarioId, e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Hash of the inputs every scenario depends on, computed once per JVM
+     */
+    private String getSharedHash() throws IOException {
+        if (sharedHash == null) {
+            MessageDigest digest = newDigest();
+            for (String input : config.getResultCacheInputs().split(",")) {
+                if (input.trim().isEmpty()) {
+                    continue;
+                }
+                Path root = Paths.get(input.trim());
+                if (!Files.exists(root)) {
+                    continue;
+                }
+                List<Path> files;
+                try (Stream<Path> walk = Files.walk(root)) {
+                    files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                }
+                for (Path path : files) {
+                    update(digest, path.toString(), fileHash(path));
+                }
+            }
+            for (String key : config.getResultCacheConfigKeys().split(",")) {
+                if (!key.trim().isEmpty()) {
+                    update(digest, key.trim(), String.valueOf(config.getProperty(key.trim())));
+                }
+            }
+            sharedHash = toHex(digest.digest());
+        }
+        return sharedHash;
+    }
+    
+    private String fileHash(Path path) throws IOException {
+        String hash = fileHashes.get(path);
+        if (hash == null) {
+            MessageDigest digest = newDigest();
+            digest.update(Files.readAllBytes(path));
+            hash = toHex(digest.digest());
+            fileHashes.put(path, hash);
+        }
+        return hash;
+    }
+    
+    private static Path sourceFile(String className) throws IOException {
+        String relative = className.replace('.', '/') + ".java";
+        for (String root : SOURCE_ROOTS) {
+            Path path = Paths.get(root, relative);
+            if (Files.exists(path)) {
+                return path;
+            }
+        }
+        throw new IOException("Source of " + className + " not found");
+    }
+    
+    private static void update(MessageDigest digest, String key, String value) {
+        digest.update((key + "=" + value + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+    
+    private void load() {
+        if (!file.exists()) {
+            logger.info("No result cache at {}", file.getPath());
+            return;
+        }
+        
+        try {
+            passedHashes.putAll(file.read());
+            logger.info("Loaded cached results of {} scenarios from {}", passedHashes.size(), file.getPath());
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable result cache: {}", file.getPath(), e);
+        }
+    }
+}
\ No newline at end of file
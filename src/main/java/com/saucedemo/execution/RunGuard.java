@@ -0,0 +1,113 @@
+package com.saucedemo.execution;
+
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.SkipException;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Run-wide fail-fast state: gate scenario policy and the setup circuit breaker
+ * Once the run is aborted, scenarios that have not started yet are skipped instead of each opening
+ * a browser and waiting out its timeouts against an application that is down.
+ */
+public class RunGuard {
+    private static final Logger logger = LogManager.getLogger(RunGuard.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final AtomicInteger consecutiveSetupFailures = new AtomicInteger();
+    private static final ThreadLocal<Boolean> setupFailedThreadLocal = ThreadLocal.withInitial(() -> false);
+    private static volatile String abortReason;
+    
+    /**
+     * Check if a scenario is a gate that must pass before the other scenarios run
+     * @param tags Scenario tags
+     * @return true if one of the tags is listed in gate.tags
+     */
+    public static boolean isGate(Collection<String> tags) {
+        List<String> gateTags = Arrays.stream(config.getGateTags().split(","))
+            .map(String::trim)
+            .filter(tag -> !tag.isEmpty())
+            .collect(Collectors.toList());
+        return tags.stream().anyMatch(gateTags::contains);
+    }
+    
+    /**
+     * Apply gate.failure.policy after a gate scenario failed
+     * @param scenarioName Failed gate scenario
+     * @return true if the remaining scenarios of the runner must be skipped
+     */
+    public static boolean onGateFailed(String scenarioName) {
+        String policy = config.getGateFailurePolicy();
+        if ("abort".equalsIgnoreCase(policy)) {
+            abort("gate scenario failed: " + scenarioName);
+            return true;
+        }
+        if ("skip".equalsIgnoreCase(policy)) {
+            logger.error("Gate scenario failed: {}, skipping the remaining scenarios of this runner", scenarioName);
+            return true;
+        }
+        logger.warn("Gate scenario failed: {}, continuing because gate.failure.policy is {}", scenarioName, policy);
+        return false;
+    }
+    
+    /**
+     * Record that scenario setup (driver start, navigation or quick login) failed on this thread
+     * Opens the circuit breaker after circuit.breaker.threshold consecutive failing scenarios
+     */
+    public static void recordSetupFailure() {
+        if (setupFailedThreadLocal.get()) {
+            return;
+        }
+        setupFailedThreadLocal.set(true);
+        
+        int failures = consecutiveSetupFailures.incrementAndGet();
+        int threshold = config.getCircuitBreakerThreshold();
+        if (threshold > 0 && failures >= threshold) {
+            abort("circuit breaker opened after " + failures + " consecutive scenario setup failures");
+        }
+    }
+    
+    /**
+     * Mark the end of a scenario, closing the failure streak if its setup succeeded
+     */
+    public static void scenarioFinished() {
+        if (!setupFailedThreadLocal.get()) {
+            consecutiveSetupFailures.set(0);
+        }
+        setupFailedThreadLocal.remove();
+    }
+    
+    /**
+     * Abort the run, skipping every scenario that has not started yet
+     * @param reason Reason logged and reported on skipped scenarios
+     */
+    public static synchronized void abort(String reason) {
+        if (abortReason == null) {
+            abortReason = reason;
+            logger.error("========== ABORTING RUN: {} ==========", reason);
+        }
+    }
+    
+    /**
+     * Skip the calling scenario if the run was aborted
+     */
+    public static void checkNotAborted() {
+        String reason = abortReason;
+        if (reason != null) {
+            throw new SkipException("Run aborted: " + reason);
+        }
+    }
+    
+    /**
+     * Check if the run was aborted
+     * @return true if aborted
+     */
+    public static boolean isAborted() {
+        return abortReason != null;
+    }
+}
\ No newline at end of file
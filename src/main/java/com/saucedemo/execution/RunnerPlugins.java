@@ -0,0 +1,146 @@
+package com.saucedemo.execution;
+
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.CucumberPropertiesProvider;
+import io.cucumber.testng.TestNGCucumberRunner;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cucumber plugins added to a runner's @CucumberOptions plugins by the execution features in use
+ * Cucumber adds the plugins of a runner's @CucumberOptions to any configured ones, so processes running side
+ * by side (local shards, forked workers) would write the same report files. Those build their runtime from
+ * RelocatedOptions with relocatedProperties(), which moves the runner's file plugins to their own directory.
+ */
+public class RunnerPlugins {
+    private static final String JSON_PLUGIN_PREFIX = "json:";
+    
+    /**
+     * Build the cucumber.plugin property for a runner
+     * @param runnerName Runner simple class name, used to name per-runner output
+     * @param configured Plugins configured for the run (e.g. a TestNG parameter), may be null
+     * @return Comma-separated plugins, or null if nothing needs to be added
+     */
+    public static String cucumberPlugins(String runnerName, String configured) {
+        List<String> plugins = new ArrayList<>();
+        if (configured != null && !configured.isEmpty()) {
+            plugins.add(configured);
+        }
+        if (ScenarioSharding.isEnabled()) {
+            plugins.add(JSON_PLUGIN_PREFIX + ScenarioSharding.getShardOutputDir() + "/cucumber-reports/" + runnerName + ".json");
+        }
+        if (AdaptiveConcurrencyController.isEnabled()) {
+            plugins.add(StepLatencyMonitor.class.getName());
+        }
+        if (ImpactRecorder.isEnabled()) {
+            plugins.add(ImpactRecorder.class.getName());
+        }
+        return plugins.isEmpty() ? null : String.join(",", plugins);
+    }
+    
+    /**
+     * Create the Cucumber runner of a runner class
+     * In a sharded run the runner's file plugins write below the shard output directory
+     * @param runnerClass Runner class whose @CucumberOptions select the scenarios
+     * @param parameters TestNG parameters of the <test> block, cucumber.* ones override the runner's options
+     * @return Cucumber runner
+     */
+    public static TestNGCucumberRunner createRunner(Class<?> runnerClass, CucumberPropertiesProvider parameters) {
+        if (!ScenarioSharding.isEnabled()) {
+            String plugins = cucumberPlugins(runnerClass.getSimpleName(), parameters.get("cucumber.plugin"));
+            return new TestNGCucumberRunner(runnerClass,
+                key -> "cucumber.plugin".equals(key) ? plugins : parameters.get(key));
+        }
+        
+        Map<String, String> properties = shardProperties(runnerClass, parameters);
+        CucumberPropertiesProvider shardParameters = key -> {
+            String parameter = "cucumber.plugin".equals(key) ? null : parameters.get(key);
+            return parameter != null ? parameter : properties.get(key);
+        };
+        return new TestNGCucumberRunner(RelocatedOptions.class, shardParameters);
+    }
+    
+    /**
+     * Get every plugin the runner created by createRunner() reports to
+     * @param runnerClass Runner class
+     * @param parameters TestNG parameters of the <test> block
+     * @return Plugin specs
+     */
+    public static List<String> reportPlugins(Class<?> runnerClass, CucumberPropertiesProvider parameters) {
+        List<String> plugins = new ArrayList<>();
+        String configured;
+        if (ScenarioSharding.isEnabled()) {
+            configured = shardProperties(runnerClass, parameters).get("cucumber.plugin");
+        } else {
+            CucumberOptions options = runnerClass.getAnnotation(CucumberOptions.class);
+            if (options != null) {
+                plugins.addAll(Arrays.asList(options.plugin()));
+            }
+            configured = cucumberPlugins(runnerClass.getSimpleName(), parameters.get("cucumber.plugin"));
+        }
+        if (configured != null && !configured.isEmpty()) {
+            plugins.addAll(Arrays.asList(configured.split(",")));
+        }
+        return plugins;
+    }
+    
+    /**
+     * Build Cucumber properties selecting the scenarios of a runner class with its file plugins moved below
+     * a directory
+     * Plugins without a path (pretty, Allure) are kept and json plugins are dropped, callers add their own.
+     * Use the properties with RelocatedOptions, not the runner class.
+     * @param runnerClass Runner class with @CucumberOptions
+     * @param outputDir Directory receiving the runner's html, junit and other file reports
+     * @return Cucumber properties: features, glue, tags and plugins
+     */
+    public static Map<String, String> relocatedProperties(Class<?> runnerClass, Path outputDir) {
+        CucumberOptions options = runnerClass.getAnnotation(CucumberOptions.class);
+        if (options == null) {
+            throw new IllegalArgumentException("Runner class has no @CucumberOptions: " + runnerClass.getName());
+        }
+        
+        List<String> plugins = new ArrayList<>();
+        for (String plugin : options.plugin()) {
+            int separator = plugin.indexOf(':');
+            if (separator < 0) {
+                plugins.add(plugin);
+            } else if (!plugin.startsWith(JSON_PLUGIN_PREFIX)) {
+                plugins.add(plugin.substring(0, separator + 1) + outputDir.resolve(plugin.substring(separator + 1)));
+            }
+        }
+        
+        Map<String, String> properties = new HashMap<>();
+        properties.put("cucumber.features", String.join(",", options.features()));
+        properties.put("cucumber.glue", String.join(",", options.glue()));
+        properties.put("cucumber.plugin", String.join(",", plugins));
+        if (!options.tags().isEmpty()) {
+            properties.put("cucumber.filter.tags", options.tags());
+        }
+        return properties;
+    }
+    
+    /**
+     * Relocated properties of a runner in this shard, with the shard's cucumber JSON report added
+     */
+    private static Map<String, String> shardProperties(Class<?> runnerClass, CucumberPropertiesProvider parameters) {
+        Map<String, String> properties = relocatedProperties(runnerClass, Paths.get(ScenarioSharding.getShardOutputDir()));
+        properties.merge("cucumber.plugin", cucumberPlugins(runnerClass.getSimpleName(), parameters.get("cucumber.plugin")),
+            (relocated, added) -> relocated.isEmpty() ? added : relocated + "," + added);
+        return properties;
+    }
+    
+    /**
+     * Options of relocated Cucumber runtimes
+     * Features, glue, tags and plugins come from relocatedProperties(), so none of the plugins in the
+     * runner's own annotation is added on top
+     */
+    @CucumberOptions(monochrome = true, publish = false)
+    public static final class RelocatedOptions {
+    }
+}
\ No newline at end of file
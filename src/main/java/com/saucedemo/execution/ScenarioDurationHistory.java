@@ -0,0 +1,113 @@
+package com.saucedemo.execution;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-scenario duration history carried from one run to the next
+ * Durations are smoothed so a single slow run does not reorder the whole queue
+ */
+public class ScenarioDurationHistory {
+    private static final Logger logger = LogManager.getLogger(ScenarioDurationHistory.class);
+    private static final double SMOOTHING = 0.5;
+    private static volatile ScenarioDurationHistory instance;
+    
+    private final HistoryFile<Long> file;
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+    private final Set<String> recorded = ConcurrentHashMap.newKeySet();
+    
+    private ScenarioDurationHistory(HistoryFile<Long> file) {
+        this.file = file;
+        load();
+    }
+    
+    /**
+     * Get the history shared by all runners of this JVM
+     * @return ScenarioDurationHistory instance
+     */
+    public static ScenarioDurationHistory getInstance() {
+        if (instance == null) {
+            synchronized (ScenarioDurationHistory.class) {
+                if (instance == null) {
+                    instance = new ScenarioDurationHistory(new HistoryFile<>(
+                        Paths.get(ConfigManager.getInstance().getScenarioDurationHistoryFile()),
+                        new TypeReference<Map<String, Long>>() {}));
+                }
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Get the predicted duration of a scenario
+     * @param scenarioId Scenario id
+     * @return Predicted duration in milliseconds, or -1 if the scenario has no history
+     */
+    public long getPredictedMillis(String scenarioId) {
+        Long millis = durations.get(scenarioId);
+        return millis != null ? millis : -1;
+    }
+    
+    /**
+     * Get the average of all known durations, used for scenarios without history
+     * @param defaultMillis Value returned when there is no history at all
+     * @return Average duration in milliseconds
+     */
+    public long getAverageMillis(long defaultMillis) {
+        return (long) durations.values().stream().mapToLong(Long::longValue).average().orElse(defaultMillis);
+    }
+    
+    /**
+     * Record the duration of a finished scenario
+     * @param scenarioId Scenario id
+     * @param millis Duration in milliseconds
+     */
+    public void record(String scenarioId, long millis) {
+        recorded.add(scenarioId);
+        durations.merge(scenarioId, millis,
+            (previous, current) -> Math.round(previous * (1 - SMOOTHING) + current * SMOOTHING));
+    }
+    
+    /**
+     * Write the history file
+     * Only scenarios recorded by this JVM overwrite the file's entries, so shard processes sharing
+     * the file on one machine do not drop each other's durations
+     */
+    public synchronized void save() {
+        Map<String, Long> updates = new TreeMap<>();
+        for (String scenarioId : recorded) {
+            updates.put(scenarioId, durations.get(scenarioId));
+        }
+        
+        try {
+            file.merge(updates, Collections.emptySet());
+            logger.info("Saved durations of {} scenarios to {}", recorded.size(), file.getPath());
+        } catch (IOException e) {
+            logger.warn("Failed to save scenario duration history: {}", file.getPath(), e);
+        }
+    }
+    
+    private void load() {
+        if (!file.exists()) {
+            logger.info("No scenario duration history at {}, scenarios keep feature file order", file.getPath());
+            return;
+        }
+        
+        try {
+            durations.putAll(file.read());
+            logger.info("Loaded durations of {} scenarios from {}", durations.size(), file.getPath());
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable scenario duration history: {}", file.getPath(), e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.saucedemo.execution;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stable scenario identifier shared by the scheduler, result history and reports
+ * Identifiers look like src/test/resources/features/login.feature:12, the same form Cucumber accepts on the command line
+ */
+public class ScenarioId {
+    private static final URI WORKING_DIR = Paths.get("").toAbsolutePath().toUri();
+    
+    /**
+     * Build the identifier of a scenario (or outline example row)
+     * @param featureUri Feature file URI
+     * @param line Line of the scenario or example row
+     * @return Scenario id
+     */
+    public static String of(URI featureUri, int line) {
+        return featurePath(featureUri) + ":" + line;
+    }
+    
+    /**
+     * Build the identifier of one data record's run of a data-driven scenario
+     * The record is identified by its content, so the id stays the same when records are added or reordered
+     * @param featureUri Feature file URI
+     * @param line Line of the scenario
+     * @param dataRow Data record the scenario runs with
+     * @return Scenario id, e.g. src/test/resources/features/login.feature:12#1a2b3c4d
+     */
+    public static String of(URI featureUri, int line, Map<String, String> dataRow) {
+        return of(featureUri, line) + "#" + Integer.toHexString(new TreeMap<>(dataRow).toString().hashCode());
+    }
+    
+    /**
+     * Get the feature path used in identifiers, relative to the working directory when possible
+     * @param featureUri Feature file URI
+     * @return Feature path
+     */
+    public static String featurePath(URI featureUri) {
+        URI relative = WORKING_DIR.relativize(featureUri);
+        return relative.isAbsolute() ? featureUri.toString() : relative.getPath();
+    }
+}
\ No newline at end of file
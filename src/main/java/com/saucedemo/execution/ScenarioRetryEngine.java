@@ -0,0 +1,124 @@
+package com.saucedemo.execution;
+
+import com.saucedemo.config.ConfigManager;
+import com.saucedemo.utils.DriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which failed scenarios are retried, shared by all runners of this JVM
+ * Only failures of a class listed in retry.failure.classes are retried (by default driver crashes,
+ * timeouts and stale elements; never assertion failures), each scenario at most retry.count times and
+ * the whole run at most retry.budget times, so a broken build fails fast instead of rerunning everything.
+ */
+public class ScenarioRetryEngine {
+    private static final Logger logger = LogManager.getLogger(ScenarioRetryEngine.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static volatile ScenarioRetryEngine instance;
+    
+    /**
+     * TestNG group of test methods that retry their own scenarios; RetryListener leaves them alone
+     */
+    public static final String SELF_RETRYING_GROUP = "self-retrying";
+    
+    /**
+     * TestNG result attribute holding the failure class of an attempt whose retry was deferred
+     */
+    public static final String RETRY_DEFERRED_ATTRIBUTE = "retry.deferred";
+    
+    private final Set<FailureClass> retryableClasses;
+    private final int maxRetriesPerScenario = config.getRetryCount();
+    private final AtomicInteger remainingBudget = new AtomicInteger(config.getRetryBudget());
+    private final Map<FailureClass, AtomicInteger> retriesByClass = new ConcurrentHashMap<>();
+    private final AtomicInteger deniedByBudget = new AtomicInteger();
+    
+    private ScenarioRetryEngine() {
+        Set<FailureClass> classes = EnumSet.noneOf(FailureClass.class);
+        classes.addAll(Arrays.stream(config.getRetryFailureClasses().split(","))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .map(name -> FailureClass.valueOf(name.toUpperCase()))
+            .collect(Collectors.toSet()));
+        this.retryableClasses = classes;
+        logger.info("Retrying {} failures up to {} times per scenario, budget {} retries",
+                   retryableClasses, maxRetriesPerScenario, remainingBudget.get());
+    }
+    
+    /**
+     * Get the retry engine shared by all runners of this JVM
+     * @return ScenarioRetryEngine instance
+     */
+    public static ScenarioRetryEngine getInstance() {
+        if (instance == null) {
+            synchronized (ScenarioRetryEngine.class) {
+                if (instance == null) {
+                    instance = new ScenarioRetryEngine();
+                }
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Decide whether a failed attempt is retried, taking one retry from the budget if so
+     * @param name Scenario or test name, for logging
+     * @param failure Throwable of the failed attempt
+     * @param retriesSoFar Retries the scenario already had
+     * @return true if the scenario should be retried
+     */
+    public boolean shouldRetry(String name, Throwable failure, int retriesSoFar) {
+        FailureClass failureClass = FailureClass.of(failure);
+        if (failureClass == FailureClass.SKIPPED) {
+            return false;
+        }
+        if (!retryableClasses.contains(failureClass)) {
+            logger.info("Not retrying '{}': {} failures are not retryable", name, failureClass);
+            return false;
+        }
+        if (retriesSoFar >= maxRetriesPerScenario) {
+            logger.info("Not retrying '{}': {} retries used", name, retriesSoFar);
+            return false;
+        }
+        if (remainingBudget.getAndUpdate(budget -> Math.max(budget - 1, 0)) <= 0) {
+            deniedByBudget.incrementAndGet();
+            logger.warn("Not retrying '{}': run retry budget of {} exhausted", name, config.getRetryBudget());
+            return false;
+        }
+        
+        retriesByClass.computeIfAbsent(failureClass, key -> new AtomicInteger()).incrementAndGet();
+        logger.warn("Retrying '{}' after {} failure (retry {} of {}, {} left in run budget)",
+                   name, failureClass, retriesSoFar + 1, maxRetriesPerScenario, remainingBudget.get());
+        return true;
+    }
+    
+    /**
+     * Prepare the current thread for a retry attempt
+     * With retry.fresh.driver the thread's browser is quit so the retry starts on a new one
+     */
+    public void prepareRetry() {
+        if (config.isRetryFreshDriver() && DriverManager.isDriverInitialized()) {
+            DriverManager.quitDriver();
+            logger.info("Quit driver so the retry starts on a fresh browser");
+        }
+    }
+    
+    /**
+     * Log the retries of the run
+     */
+    public void logSummary() {
+        int used = config.getRetryBudget() - remainingBudget.get();
+        if (used == 0 && deniedByBudget.get() == 0) {
+            return;
+        }
+        logger.info("Retries used: {} of {} ({}), denied by budget: {}",
+                   used, config.getRetryBudget(), retriesByClass, deniedByBudget.get());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.saucedemo.execution;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Deterministic partitioning of scenarios across shards (CI agents or local processes)
+ * Every shard must compute the same partition without coordination, so it only depends on inputs all shards
+ * share: the scenario ids and, when shard.history names one, a duration snapshot passed to every shard.
+ * With a snapshot, scenarios are assigned longest first to the least loaded shard, which balances shards by
+ * predicted duration. Without one, each scenario goes to the shard given by a stable hash of its id. The local
+ * duration history is never used here, it differs between agents and changes while local shards finish.
+ */
+public class ScenarioSharding {
+    private static final Logger logger = LogManager.getLogger(ScenarioSharding.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static volatile Map<String, Long> snapshot;
+    
+    /**
+     * Check if this process runs one shard of a sharded suite
+     * @return true if shard.total is greater than 1
+     */
+    public static boolean isEnabled() {
+        return config.getShardTotal() > 1;
+    }
+    
+    /**
+     * Get the directory this shard writes its partial reports to
+     * @return Shard output directory, e.g. target/shards/shard-0
+     */
+    public static String getShardOutputDir() {
+        return config.getShardOutputBaseDir() + "shard-" + config.getShardIndex();
+    }
+    
+    /**
+     * Select the scenarios of the configured shard
+     * @param scenarios Scenarios in dispatch order
+     * @param scenarioId Stable id of a scenario
+     * @return Scenarios of this shard, in the original dispatch order
+     */
+    public static <T> List<T> select(List<T> scenarios, Function<T, String> scenarioId) {
+        int index = config.getShardIndex();
+        int total = config.getShardTotal();
+        if (index < 0 || index >= total) {
+            throw new IllegalArgumentException("shard.index must be between 0 and " + (total - 1) + ", got: " + index);
+        }
+        
+        Map<String, Long> durations = getSnapshot();
+        Set<String> selected = durations.isEmpty()
+            ? selectByHash(scenarios, scenarioId, index, total)
+            : selectByDuration(scenarios, scenarioId, durations, index, total);
+        
+        logger.info("Shard {} of {} takes {} of {} scenarios", index, total, selected.size(), scenarios.size());
+        return scenarios.stream()
+            .filter(scenario -> selected.contains(scenarioId.apply(scenario)))
+            .collect(Collectors.toList());
+    }
+    
+    private static <T> Set<String> selectByHash(List<T> scenarios, Function<T, String> scenarioId, int index, int total) {
+        // String.hashCode is specified by the language, so every JVM picks the same shard
+        Set<String> selected = new HashSet<>();
+        for (T scenario : scenarios) {
+            String id = scenarioId.apply(scenario);
+            if (Math.floorMod(id.hashCode(), total) == index) {
+                selected.add(id);
+            }
+        }
+        return selected;
+    }
+    
+    private static <T> Set<String> selectByDuration(List<T> scenarios, Function<T, String> scenarioId,
+                                                    Map<String, Long> durations, int index, int total) {
+        long unknownMillis = (long) durations.values().stream().mapToLong(Long::longValue).average().orElse(0);
+        ToLongFunction<T> predictedMillis = scenario -> durations.getOrDefault(scenarioId.apply(scenario), unknownMillis);
+        
+        // Sort by duration, then id, so ties break identically on every shard
+        List<T> byDuration = new ArrayList<>(scenarios);
+        byDuration.sort(Comparator.comparingLong(predictedMillis).reversed().thenComparing(scenarioId));
+        
+        long[] loads = new long[total];
+        Set<String> selected = new HashSet<>();
+        for (T scenario : byDuration) {
+            int shard = 0;
+            for (int i = 1; i < total; i++) {
+                if (loads[i] < loads[shard]) {
+                    shard = i;
+                }
+            }
+            loads[shard] += predictedMillis.applyAsLong(scenario);
+            if (shard == index) {
+                selected.add(scenarioId.apply(scenario));
+            }
+        }
+        logger.info("Predicted shard loads (ms) from {}: {}", config.getShardHistoryFile(), Arrays.toString(loads));
+        return selected;
+    }
+    
+    /**
+     * Get the duration snapshot named by shard.history
+     * @return Durations by scenario id, empty if no snapshot is configured
+     */
+    private static Map<String, Long> getSnapshot() {
+        if (snapshot == null) {
+            synchronized (ScenarioSharding.class) {
+                if (snapshot == null) {
+                    snapshot = loadSnapshot(config.getShardHistoryFile().trim());
+                }
+            }
+        }
+        return snapshot;
+    }
+    
+    private static Map<String, Long> loadSnapshot(String path) {
+        if (path.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        HistoryFile<Long> file = new HistoryFile<>(Paths.get(path), new TypeReference<Map<String, Long>>() {});
+        if (!file.exists()) {
+            // Silently hashing here would give this shard a different partition than shards that have the file
+            throw new IllegalStateException("shard.history file does not exist: " + path);
+        }
+        try {
+            Map<String, Long> durations = file.read();
+            logger.info("Partitioning shards by the {} durations in {}", durations.size(), path);
+            return durations;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable shard.history file: " + path, e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+package com.saucedemo.execution;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Combines the partial reports written by each shard into single reports
+ * Shard directories look like target/shards/shard-N and contain cucumber-reports/*.json,
+ * allure-results/ and extent.json.
+ */
+public class ShardReportMerger {
+    private static final Logger logger = LogManager.getLogger(ShardReportMerger.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private static final String DEFAULT_SHARDS_DIR = "target/shards/";
+    private static final String DEFAULT_OUTPUT_DIR = "target/";
+    
+    /**
+     * Merge shard reports from the command line
+     * @param args Optional shards directory and output directory
+     */
+    public static void main(String[] args) throws IOException {
+        Path shardsDir = Paths.get(args.length > 0 ? args[0] : DEFAULT_SHARDS_DIR);
+        Path outputDir = Paths.get(args.length > 1 ? args[1] : DEFAULT_OUTPUT_DIR);
+        merge(shardsDir, outputDir);
+    }
+    
+    /**
+     * Merge cucumber JSON, Allure results and Extent data of all shards
+     * @param shardsDir Directory containing one sub directory per shard
+     * @param outputDir Directory receiving the merged reports
+     */
+    public static void merge(Path shardsDir, Path outputDir) throws IOException {
+        List<Path> shardDirs = listShardDirs(shardsDir);
+        if (shardDirs.isEmpty()) {
+            throw new IllegalStateException("No shard output found in " + shardsDir);
+        }
+        logger.info("Merging reports of {} shards from {}", shardDirs.size(), shardsDir);
+        
+        mergeCucumberJson(shardDirs, outputDir.resolve("cucumber-reports/merged/cucumber.json"));
+        mergeAllureResults(shardDirs, outputDir.resolve("allure-results"));
+        mergeExtentData(shardDirs, Paths.get(ConfigManager.getInstance().getReportsPath(), "ExtentReport_merged.html"));
+    }
+    
+    /**
+     * Concatenate cucumber JSON reports, joining scenarios of the same feature into one feature entry
+     */
+    private static void mergeCucumberJson(List<Path> shardDirs, Path outputFile) throws IOException {
+        Map<String, ObjectNode> features = new LinkedHashMap<>();
+        int reportCount = 0;
+        
+        for (Path shardDir : shardDirs) {
+            Path reportsDir = shardDir.resolve("cucumber-reports");
+            if (!Files.isDirectory(reportsDir)) {
+                continue;
+            }
+            for (Path report : listFiles(reportsDir, ".json")) {
+                reportCount++;
+                for (JsonNode node : objectMapper.readTree(report.toFile())) {
+                    ObjectNode feature = (ObjectNode) node;
+                    ObjectNode existing = features.putIfAbsent(feature.path("uri").asText(), feature);
+                    if (existing != null) {
+                        existing.withArray("elements").addAll(feature.withArray("elements"));
+                    }
+                }
+            }
+        }
+        
+        Files.createDirectories(outputFile.getParent());
+        ArrayNode merged = objectMapper.createArrayNode().addAll(features.values());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(outputFile.toFile(), merged);
+        logger.info("Merged {} cucumber JSON reports ({} features) into {}", reportCount, features.size(), outputFile);
+    }
+    
+    /**
+     * Copy Allure result files into one results directory, file names are unique per result
+     */
+    private static void mergeAllureResults(List<Path> shardDirs, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        int fileCount = 0;
+        
+        for (Path shardDir : shardDirs) {
+            Path resultsDir = shardDir.resolve("allure-results");
+            if (!Files.isDirectory(resultsDir)) {
+                continue;
+            }
+            for (Path result : listFiles(resultsDir, "")) {
+                Files.copy(result, outputDir.resolve(result.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                fileCount++;
+            }
+        }
+        logger.info("Copied {} Allure result files into {}", fileCount, outputDir);
+    }
+    
+    /**
+     * Rebuild one Extent report from the JSON archives written by each shard
+     */
+    private static void mergeExtentData(List<Path> shardDirs, Path outputFile) throws IOException {
+        ExtentReports extentReports = new ExtentReports();
+        int archiveCount = 0;
+        
+        for (Path shardDir : shardDirs) {
+            Path archive = shardDir.resolve("extent.json");
+            if (Files.exists(archive)) {
+                extentReports.createDomainFromJsonArchive(archive.toString());
+                archiveCount++;
+            }
+        }
+        
+        if (archiveCount == 0) {
+            logger.warn("No Extent archives found, skipping merged Extent report");
+            return;
+        }
+        
+        Files.createDirectories(outputFile.getParent());
+        extentReports.attachReporter(new ExtentSparkReporter(outputFile.toString()));
+        extentReports.flush();
+        logger.info("Merged {} Extent archives into {}", archiveCount, outputFile);
+    }
+    
+    private static List<Path> listShardDirs(Path shardsDir) throws IOException {
+        if (!Files.isDirectory(shardsDir)) {
+            throw new IllegalStateException("Shards directory not found: " + shardsDir);
+        }
+        try (Stream<Path> entries = Files.list(shardsDir)) {
+            return entries.filter(Files::isDirectory).sorted().collect(Collectors.toList());
+        }
+    }
+    
+    private static List<Path> listFiles(Path dir, String extension) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries
+                .filter(Files::isRegularFile)
+                .filter(file -> file.getFileName().toString().endsWith(extension))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+}
\ No newline at end of file
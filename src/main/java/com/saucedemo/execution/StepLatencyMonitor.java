@@ -0,0 +1,25 @@
+package com.saucedemo.execution;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestStepFinished;
+
+/**
+ * Cucumber plugin that reports passed step durations to the AdaptiveConcurrencyController
+ */
+public class StepLatencyMonitor implements ConcurrentEventListener {
+    
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+    }
+    
+    private void onStepFinished(TestStepFinished event) {
+        if (event.getTestStep() instanceof PickleStepTestStep && event.getResult().getStatus() == Status.PASSED) {
+            String stepText = ((PickleStepTestStep) event.getTestStep()).getStep().getText();
+            AdaptiveConcurrencyController.getInstance().recordStep(stepText, event.getResult().getDuration().toNanos());
+        }
+    }
+}
\ No newline at end of file
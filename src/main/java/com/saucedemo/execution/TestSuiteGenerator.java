@@ -0,0 +1,298 @@
+package com.saucedemo.execution;
+
+import com.saucedemo.config.ConfigManager;
+import com.saucedemo.utils.DriverManager;
+import com.saucedemo.utils.ScenarioDataContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Build-time generator of a TestNG suite from the feature files
+ * Scenarios are grouped by browser (@browser:<name> tag) and by their feature's first tag, then packed
+ * into <test> blocks balanced by historical duration. Every block runs GeneratedSuiteTestRunner with a
+ * line-filtered cucumber.features parameter, so new features need no hand-written runner.
+ * Data-driven scenarios (@data:<file>:<section>) are left to their own runner.
+ */
+public class TestSuiteGenerator {
+    private static final Logger logger = LogManager.getLogger(TestSuiteGenerator.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    private static final String DEFAULT_FEATURES_DIR = "src/test/resources/features/";
+    private static final String DEFAULT_OUTPUT_FILE = "target/generated-suites/testng-generated.xml";
+    private static final String RUNNER_CLASS = "com.saucedemo.runners.GeneratedSuiteTestRunner";
+    private static final long DEFAULT_SCENARIO_MILLIS = 10000;
+    
+    /**
+     * Generate the suite from the command line
+     * @param args Optional features directory, output file and number of test blocks
+     */
+    public static void main(String[] args) throws IOException {
+        Path featuresDir = Paths.get(args.length > 0 ? args[0] : DEFAULT_FEATURES_DIR);
+        Path outputFile = Paths.get(args.length > 1 ? args[1] : DEFAULT_OUTPUT_FILE);
+        int blocks = args.length > 2 ? Integer.parseInt(args[2]) : config.getSuiteGeneratorTestBlocks();
+        generate(featuresDir, outputFile, blocks);
+    }
+    
+    /**
+     * Scan feature files and write a balanced TestNG suite
+     * @param featuresDir Directory containing .feature files
+     * @param outputFile Suite file to write
+     * @param blockCount Total number of <test> blocks, split across browsers by expected duration
+     */
+    public static void generate(Path featuresDir, Path outputFile, int blockCount) throws IOException {
+        List<FeatureScenario> scenarios = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(featuresDir)) {
+            for (Path feature : files.filter(file -> file.toString().endsWith(".feature")).sorted().collect(Collectors.toList())) {
+                scenarios.addAll(parseFeature(feature));
+            }
+        }
+        
+        ScenarioDurationHistory history = ScenarioDurationHistory.getInstance();
+        long unknownMillis = history.getAverageMillis(DEFAULT_SCENARIO_MILLIS);
+        for (FeatureScenario scenario : scenarios) {
+            long millis = history.getPredictedMillis(scenario.scenarioId());
+            scenario.millis = millis >= 0 ? millis : unknownMillis;
+        }
+        
+        Map<String, List<FeatureScenario>> byBrowser = scenarios.stream()
+            .collect(Collectors.groupingBy(scenario -> scenario.browser, TreeMap::new, Collectors.toList()));
+        long totalMillis = scenarios.stream().mapToLong(scenario -> scenario.millis).sum();
+        
+        List<TestBlock> blocks = new ArrayList<>();
+        for (Map.Entry<String, List<FeatureScenario>> entry : byBrowser.entrySet()) {
+            long browserMillis = entry.getValue().stream().mapToLong(scenario -> scenario.millis).sum();
+            int browserBlocks = (int) Math.max(1, Math.round((double) blockCount * browserMillis / Math.max(1, totalMillis)));
+            blocks.addAll(packBlocks(entry.getKey(), entry.getValue(), browserBlocks));
+        }
+        
+        Files.createDirectories(outputFile.toAbsolutePath().getParent());
+        Files.write(outputFile, toSuiteXml(blocks).getBytes(StandardCharsets.UTF_8));
+        logger.info("Generated suite {} with {} test blocks for {} scenarios", outputFile, blocks.size(), scenarios.size());
+        for (TestBlock block : blocks) {
+            logger.info("  {}: {} scenarios, expected {} ms, groups {}",
+                       block.name, block.scenarios.size(), block.millis, block.groups());
+        }
+    }
+    
+    /**
+     * Pack one browser's scenarios into blocks, keeping each tag group together unless it alone exceeds a block's share
+     */
+    private static List<TestBlock> packBlocks(String browser, List<FeatureScenario> scenarios, int blockCount) {
+        long target = Math.max(1, scenarios.stream().mapToLong(scenario -> scenario.millis).sum() / blockCount);
+        
+        List<List<FeatureScenario>> units = new ArrayList<>();
+        Map<String, List<FeatureScenario>> byGroup = scenarios.stream()
+            .collect(Collectors.groupingBy(scenario -> scenario.group, TreeMap::new, Collectors.toList()));
+        for (List<FeatureScenario> group : byGroup.values()) {
+            long groupMillis = group.stream().mapToLong(scenario -> scenario.millis).sum();
+            int chunks = (int) Math.min(group.size(), Math.max(1, Math.round((double) groupMillis / target)));
+            units.addAll(splitLongestFirst(group, chunks));
+        }
+        
+        List<TestBlock> blocks = new ArrayList<>();
+        for (int i = 0; i < blockCount; i++) {
+            blocks.add(new TestBlock(browser + "-" + (i + 1)));
+        }
+        units.sort(Comparator.comparingLong(TestSuiteGenerator::sumMillis).reversed());
+        for (List<FeatureScenario> unit : units) {
+            TestBlock lightest = blocks.stream().min(Comparator.comparingLong(block -> block.millis)).get();
+            lightest.scenarios.addAll(unit);
+            lightest.millis += sumMillis(unit);
+        }
+        return blocks.stream().filter(block -> !block.scenarios.isEmpty()).collect(Collectors.toList());
+    }
+    
+    private static List<List<FeatureScenario>> splitLongestFirst(List<FeatureScenario> group, int chunks) {
+        List<List<FeatureScenario>> parts = new ArrayList<>();
+        long[] loads = new long[chunks];
+        for (int i = 0; i < chunks; i++) {
+            parts.add(new ArrayList<>());
+        }
+        for (FeatureScenario scenario : LongestFirstScheduler.order(group, s -> s.millis)) {
+            int lightest = 0;
+            for (int i = 1; i < chunks; i++) {
+                if (loads[i] < loads[lightest]) {
+                    lightest = i;
+                }
+            }
+            parts.get(lightest).add(scenario);
+            loads[lightest] += scenario.millis;
+        }
+        return parts;
+    }
+    
+    private static long sumMillis(List<FeatureScenario> scenarios) {
+        return scenarios.stream().mapToLong(scenario -> scenario.millis).sum();
+    }
+    
+    /**
+     * Find the scenarios (and outline example rows) of a feature file
+     */
+    static List<FeatureScenario> parseFeature(Path feature) throws IOException {
+        List<String> lines = Files.readAllLines(feature, StandardCharsets.UTF_8);
+        String path = ScenarioId.featurePath(feature.toAbsolutePath().toUri());
+        String fallbackGroup = feature.getFileName().toString().replace(".feature", "");
+        
+        List<FeatureScenario> scenarios = new ArrayList<>();
+        List<String> featureTags = new ArrayList<>();
+        List<String> pendingTags = new ArrayList<>();
+        List<String> outlineTags = null;
+        List<String> examplesTags = null;
+        boolean inDocString = false;
+        boolean headerRowSeen = false;
+        
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.startsWith("\"\"\"") || line.startsWith("```")) {
+                inDocString = !inDocString;
+                continue;
+            }
+            if (inDocString || line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            
+            if (line.startsWith("@")) {
+                pendingTags.addAll(Arrays.asList(line.split("#")[0].trim().split("\\s+")));
+            } else if (line.startsWith("Feature:")) {
+                featureTags.addAll(pendingTags);
+                pendingTags.clear();
+            } else if (line.startsWith("Scenario Outline:") || line.startsWith("Scenario Template:")) {
+                outlineTags = new ArrayList<>(featureTags);
+                outlineTags.addAll(pendingTags);
+                examplesTags = null;
+                pendingTags.clear();
+            } else if (line.startsWith("Scenario:") || line.startsWith("Example:")) {
+                List<String> tags = new ArrayList<>(featureTags);
+                tags.addAll(pendingTags);
+                scenarios.add(new FeatureScenario(path, i + 1, tags, fallbackGroup));
+                outlineTags = null;
+                examplesTags = null;
+                pendingTags.clear();
+            } else if ((line.startsWith("Examples:") || line.startsWith("Scenarios:")) && outlineTags != null) {
+                examplesTags = new ArrayList<>(outlineTags);
+                examplesTags.addAll(pendingTags);
+                headerRowSeen = false;
+                pendingTags.clear();
+            } else if (line.startsWith("|") && examplesTags != null) {
+                // The first row of an Examples table is its header, every other row is one scenario
+                if (headerRowSeen) {
+                    scenarios.add(new FeatureScenario(path, i + 1, examplesTags, fallbackGroup));
+                }
+                headerRowSeen = true;
+            } else if (line.startsWith("Background:") || line.startsWith("Rule:")) {
+                outlineTags = null;
+                examplesTags = null;
+                pendingTags.clear();
+            }
+        }
+        
+        return scenarios.stream()
+            .filter(scenario -> ScenarioDataContext.findDataSource(scenario.tags) == null)
+            .collect(Collectors.toList());
+    }
+    
+    private static String toSuiteXml(List<TestBlock> blocks) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<!DOCTYPE suite SYSTEM \"http://testng.org/testng-1.0.dtd\">\n");
+        xml.append("<!-- Generated by TestSuiteGenerator, do not edit -->\n");
+        xml.append("<suite name=\"SauceDemo_Generated_Suite\" parallel=\"tests\" thread-count=\"")
+            .append(Math.max(1, blocks.size())).append("\" data-provider-thread-count=\"1\" verbose=\"1\">\n");
+        xml.append("    <parameter name=\"thread.count\" value=\"1\"/>\n");
+        xml.append("    <listeners>\n");
+        xml.append("        <listener class-name=\"com.saucedemo.listeners.ExtentReportListener\"/>\n");
+        xml.append("        <listener class-name=\"com.saucedemo.listeners.RetryListener\"/>\n");
+        xml.append("        <listener class-name=\"com.saucedemo.listeners.ScreenshotListener\"/>\n");
+        xml.append("        <listener class-name=\"io.qameta.allure.testng.AllureTestNg\"/>\n");
+        xml.append("    </listeners>\n");
+        
+        for (TestBlock block : blocks) {
+            xml.append("\n    <!-- ").append(block.scenarios.size()).append(" scenarios, expected ")
+                .append(block.millis).append(" ms, groups ").append(block.groups()).append(" -->\n");
+            xml.append("    <test name=\"").append(escape(block.name)).append("\">\n");
+            xml.append("        <parameter name=\"cucumber.features\" value=\"").append(escape(block.featurePaths())).append("\"/>\n");
+            xml.append("        <parameter name=\"cucumber.plugin\" value=\"json:target/cucumber-reports/generated/")
+                .append(escape(block.name)).append(".json\"/>\n");
+            xml.append("        <classes>\n");
+            xml.append("            <class name=\"").append(RUNNER_CLASS).append("\"/>\n");
+            xml.append("        </classes>\n");
+            xml.append("    </test>\n");
+        }
+        xml.append("</suite>\n");
+        return xml.toString();
+    }
+    
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+    
+    /**
+     * Scenario location with its tags and expected duration
+     */
+    static final class FeatureScenario {
+        private final String path;
+        private final int line;
+        private final List<String> tags;
+        private final String group;
+        private final String browser;
+        private long millis;
+        
+        FeatureScenario(String path, int line, List<String> tags, String fallbackGroup) {
+            this.path = path;
+            this.line = line;
+            this.tags = tags;
+            this.group = tags.isEmpty() ? fallbackGroup : tags.get(0).substring(1);
+            this.browser = DriverManager.getBrowserForTags(tags, config.getBrowser());
+        }
+        
+        String scenarioId() {
+            return path + ":" + line;
+        }
+    }
+    
+    /**
+     * One generated <test> block
+     */
+    private static final class TestBlock {
+        private final String name;
+        private final List<FeatureScenario> scenarios = new ArrayList<>();
+        private long millis;
+        
+        TestBlock(String name) {
+            this.name = name;
+        }
+        
+        String groups() {
+            return scenarios.stream().map(scenario -> scenario.group).distinct().sorted().collect(Collectors.joining(","));
+        }
+        
+        /**
+         * Feature paths with line filters, e.g. features/login.feature:12:19
+         */
+        String featurePaths() {
+            Map<String, List<String>> linesByFeature = new LinkedHashMap<>();
+            scenarios.stream()
+                .sorted(Comparator.comparing((FeatureScenario scenario) -> scenario.path).thenComparingInt(scenario -> scenario.line))
+                .forEach(scenario -> linesByFeature.computeIfAbsent(scenario.path, key -> new ArrayList<>())
+                    .add(String.valueOf(scenario.line)));
+            return linesByFeature.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + String.join(":", entry.getValue()))
+                .collect(Collectors.joining(","));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.saucedemo.execution;
+
+import com.saucedemo.utils.DriverManager;
+import io.cucumber.testng.Pickle;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Worker bookkeeping for the single scenario queue of WorkStealingTestRunner
+ * The runner serves the scenarios of all its runner classes from one data provider, so every pool thread
+ * takes the next scenario as soon as it is free. Workers keep their browser between scenarios (DriverManager
+ * driver reuse), and the run summary shows the utilisation of each worker.
+ * Once the run deadline passes the run is aborted, so scenarios that have not started are skipped, and the
+ * browsers of scenarios still running are quit so they fail instead of holding up the run.
+ */
+public class WorkStealingScenarioScheduler {
+    private static final Logger logger = LogManager.getLogger(WorkStealingScenarioScheduler.class);
+    
+    private final long timeoutMinutes;
+    private final Map<String, WorkerStats> workerStats = new ConcurrentHashMap<>();
+    private final Map<String, String> runningScenarios = new ConcurrentHashMap<>();
+    private ScheduledExecutorService deadline;
+    private long startNanos;
+    
+    /**
+     * Constructor
+     * @param timeoutMinutes Minutes after start() at which the run is aborted
+     */
+    public WorkStealingScenarioScheduler(long timeoutMinutes) {
+        this.timeoutMinutes = timeoutMinutes;
+    }
+    
+    /**
+     * Start the run clock and the deadline
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+        deadline = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "work-stealing-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        deadline.schedule(this::onDeadline, timeoutMinutes, TimeUnit.MINUTES);
+    }
+    
+    /**
+     * Run one scenario on the calling worker thread, keeping its browser warm for the next one
+     * @param pickle Scenario
+     * @param scenario Runs the scenario
+     */
+    public void run(Pickle pickle, Runnable scenario) {
+        DriverManager.setDriverReuse(true);
+        String worker = Thread.currentThread().getName();
+        WorkerStats stats = workerStats.computeIfAbsent(worker, name -> new WorkerStats());
+        runningScenarios.put(worker, pickle.getName() + " (" + ScenarioId.of(pickle.getUri(), pickle.getLine()) + ")");
+        long start = System.nanoTime();
+        try {
+            scenario.run();
+        } finally {
+            runningScenarios.remove(worker);
+            stats.busyNanos.addAndGet(System.nanoTime() - start);
+            stats.scenarios.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Stop the deadline, quit the warm browsers and log the run summary
+     */
+    public void finish() {
+        if (deadline != null) {
+            deadline.shutdownNow();
+        }
+        DriverManager.quitReusedDrivers();
+        logSummary(System.nanoTime() - startNanos);
+    }
+    
+    private void onDeadline() {
+        RunGuard.abort("work-stealing run exceeded work.stealing.timeout.minutes (" + timeoutMinutes + ")");
+        runningScenarios.forEach((worker, scenario) ->
+            logger.error("Scenario still running on {} at the deadline, quitting its browser: {}", worker, scenario));
+        DriverManager.quitReusedDrivers();
+    }
+    
+    private void logSummary(long wallNanos) {
+        int scenarioCount = workerStats.values().stream().mapToInt(stats -> stats.scenarios.get()).sum();
+        logger.info("========== WORK-STEALING RUN SUMMARY ==========");
+        logger.info("Scenarios: {}, workers: {}, wall time: {} ms",
+                   scenarioCount, workerStats.size(), TimeUnit.NANOSECONDS.toMillis(wallNanos));
+        new TreeMap<>(workerStats).forEach((worker, stats) -> logger.info(
+            "{}: {} scenarios, busy {} ms, utilisation {}%",
+            worker, stats.scenarios.get(), TimeUnit.NANOSECONDS.toMillis(stats.busyNanos.get()),
+            wallNanos > 0 ? Math.round(100.0 * stats.busyNanos.get() / wallNanos) : 0));
+    }
+    
+    /**
+     * Busy time and scenario count of one worker thread
+     */
+    private static final class WorkerStats {
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicInteger scenarios = new AtomicInteger();
+    }
+}
\ No newline at end of file
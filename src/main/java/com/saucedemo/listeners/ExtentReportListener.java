@@ -6,7 +6,11 @@ import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.markuputils.ExtentColor;
 import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.JsonFormatter;
 import com.saucedemo.config.ConfigManager;
+import com.saucedemo.execution.FlakinessTracker;
+import com.saucedemo.execution.ResultCache;
+import com.saucedemo.execution.ScenarioSharding;
 import com.saucedemo.utils.DriverManager;
 import com.saucedemo.utils.ScreenshotUtils;
 import org.apache.logging.log4j.LogManager;
@@ -60,6 +64,13 @@ public class ExtentReportListener implements ITestListener {
         extentReports = new ExtentReports();
         extentReports.attachReporter(sparkReporter);
         
+        // Shards also write a JSON archive that ShardReportMerger combines into one report
+        if (ScenarioSharding.isEnabled()) {
+            File archive = new File(ScenarioSharding.getShardOutputDir(), "extent.json");
+            archive.getParentFile().mkdirs();
+            extentReports.attachReporter(new JsonFormatter(archive.getPath()));
+        }
+        
         // Set system information
         setSystemInformation();
         
@@ -163,6 +174,17 @@ public class ExtentReportListener implements ITestListener {
         
         test.log(Status.PASS, MarkupHelper.createLabel("Test Passed: " + testName, ExtentColor.GREEN));
         
+        // Scenarios served from the result cache did not run in this execution
+        Object cachedHash = result.getAttribute(ResultCache.CACHED_ATTRIBUTE);
+        if (cachedHash != null) {
+            test.assignCategory("cached");
+            test.log(Status.INFO, MarkupHelper.createLabel("Cached: passed in a previous run with identical inputs",
+                ExtentColor.GREY));
+            test.log(Status.INFO, "Input hash: " + cachedHash);
+        }
+        
+        assignQuarantineCategory(result, test);
+        
         long duration = result.getEndMillis() - result.getStartMillis();
         test.log(Status.INFO, "Test execution time: " + duration + " ms");
         
@@ -210,6 +232,8 @@ public class ExtentReportListener implements ITestListener {
         
         test.log(Status.SKIP, MarkupHelper.createLabel("Test Skipped: " + testName, ExtentColor.YELLOW));
         
+        assignQuarantineCategory(result, test);
+        
         // Log skip reason
         Throwable throwable = result.getThrowable();
         if (throwable != null) {
@@ -219,6 +243,17 @@ public class ExtentReportListener implements ITestListener {
         logger.warn("Test skipped: {}", testName);
     }
     
+    /**
+     * File scenarios run in the quarantine lane under a 'quarantine' category
+     */
+    private void assignQuarantineCategory(ITestResult result, ExtentTest test) {
+        Object score = result.getAttribute(FlakinessTracker.QUARANTINED_ATTRIBUTE);
+        if (score != null) {
+            test.assignCategory("quarantine");
+            test.log(Status.INFO, String.format("Quarantined as flaky (score %.2f), does not fail the build", (Double) score));
+        }
+    }
+    
     /**
      * Get current ExtentTest instance
      * @return Current ExtentTest instance
@@ -1,6 +1,7 @@
 package com.saucedemo.listeners;
 
 import com.saucedemo.config.ConfigManager;
+import com.saucedemo.execution.ScenarioRetryEngine;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.IRetryAnalyzer;
@@ -8,6 +9,8 @@ import org.testng.ITestResult;
 
 /**
  * Retry Analyzer for implementing retry logic for failed tests
+ * Failures are classified by ScenarioRetryEngine, so only retryable failures are retried and every
+ * retry counts against the run's retry budget
  */
 public class RetryAnalyzer implements IRetryAnalyzer {
     private static final Logger logger = LogManager.getLogger(RetryAnalyzer.class);
@@ -18,9 +21,11 @@ public class RetryAnalyzer implements IRetryAnalyzer {
     
     @Override
     public boolean retry(ITestResult result) {
-        if (retryCount < maxRetryCount) {
+        String testName = result.getMethod().getMethodName();
+        
+        if (ScenarioRetryEngine.getInstance().shouldRetry(testName, result.getThrowable(), retryCount)) {
             retryCount++;
-            String testName = result.getMethod().getMethodName();
+            ScenarioRetryEngine.getInstance().prepareRetry();
             
             logger.warn("Test '{}' failed. Retrying attempt {} of {}", 
                        testName, retryCount, maxRetryCount);
@@ -33,12 +38,11 @@ public class RetryAnalyzer implements IRetryAnalyzer {
             return true;
         }
         
-        String testName = result.getMethod().getMethodName();
-        logger.error("Test '{}' failed after {} retry attempts", testName, maxRetryCount);
+        logger.error("Test '{}' failed after {} retry attempts", testName, retryCount);
         
         // Log final failure to ExtentReports
         ExtentReportListener.logFail(
-            String.format("Test failed permanently after %d retry attempts", maxRetryCount)
+            String.format("Test failed permanently after %d retry attempts", retryCount)
         );
         
         return false;
@@ -1,21 +1,41 @@
 package com.saucedemo.listeners;
 
+import com.saucedemo.execution.FlakinessTracker;
+import com.saucedemo.execution.ResultCache;
+import com.saucedemo.execution.ScenarioId;
+import com.saucedemo.execution.ScenarioRetryEngine;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.IAnnotationTransformer;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.SkipException;
 import org.testng.annotations.ITestAnnotation;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
 
 /**
  * Retry Listener to apply RetryAnalyzer to all test methods automatically
+ * Methods in the ScenarioRetryEngine.SELF_RETRYING_GROUP group retry on their own and are skipped
+ * The final outcome of every scenario (passed, passed on retry, failed) is written to FlakinessTracker
  */
-public class RetryListener implements IAnnotationTransformer {
+public class RetryListener implements IAnnotationTransformer, ITestListener {
     private static final Logger logger = LogManager.getLogger(RetryListener.class);
+    private static final FlakinessTracker flakinessTracker = FlakinessTracker.getInstance();
     
     @Override
     public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        // Scenario runners that defer their own retries must not also be retried by TestNG
+        if (Arrays.asList(annotation.getGroups()).contains(ScenarioRetryEngine.SELF_RETRYING_GROUP)) {
+            return;
+        }
+        
         // Apply RetryAnalyzer to all test methods that don't already have one
         if (annotation.getRetryAnalyzer() == null) {
             annotation.setRetryAnalyzer(RetryAnalyzer.class);
@@ -25,4 +45,54 @@ public class RetryListener implements IAnnotationTransformer {
             }
         }
     }
+    
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        // Cached results did not run, they say nothing about flakiness
+        if (result.getAttribute(ResultCache.CACHED_ATTRIBUTE) == null) {
+            flakinessTracker.record(scenarioId(result), true);
+        }
+    }
+    
+    @Override
+    public void onTestFailure(ITestResult result) {
+        flakinessTracker.record(scenarioId(result), false);
+    }
+    
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (result.wasRetried() || result.getAttribute(ScenarioRetryEngine.RETRY_DEFERRED_ATTRIBUTE) != null) {
+            flakinessTracker.noteRetry(scenarioId(result));
+            return;
+        }
+        
+        // A failing quarantined scenario is reported as skipped with the failure as cause
+        Throwable throwable = result.getThrowable();
+        if (result.getAttribute(FlakinessTracker.QUARANTINED_ATTRIBUTE) != null && throwable != null
+                && throwable.getCause() != null && !(throwable.getCause() instanceof SkipException)) {
+            flakinessTracker.record(scenarioId(result), false);
+        }
+    }
+    
+    @Override
+    public void onFinish(ITestContext context) {
+        flakinessTracker.save();
+    }
+    
+    /**
+     * Get the scenario id of a Cucumber scenario invocation, or class and method name for other tests
+     * Each data record of a data-driven scenario is an invocation of its own and gets its own id
+     */
+    @SuppressWarnings("unchecked")
+    private static String scenarioId(ITestResult result) {
+        Object[] parameters = result.getParameters();
+        if (parameters.length > 0 && parameters[0] instanceof PickleWrapper) {
+            Pickle pickle = ((PickleWrapper) parameters[0]).getPickle();
+            if (parameters.length > 2 && parameters[2] instanceof Map) {
+                return ScenarioId.of(pickle.getUri(), pickle.getLine(), (Map<String, String>) parameters[2]);
+            }
+            return ScenarioId.of(pickle.getUri(), pickle.getLine());
+        }
+        return result.getTestClass().getName() + "." + result.getMethod().getMethodName();
+    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.saucedemo.pages;
 
 import com.saucedemo.config.ConfigManager;
+import com.saucedemo.execution.ImpactRecorder;
 import com.saucedemo.utils.ElementUtils;
+import com.saucedemo.utils.NavigationTimer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
@@ -63,6 +65,7 @@ public abstract class BasePage {
         this.driver = driver;
         this.config = ConfigManager.getInstance();
         PageFactory.initElements(driver, this);
+        ImpactRecorder.recordClass(getClass());
         logger.debug("Initialized page: {}", this.getClass().getSimpleName());
     }
     
@@ -248,9 +251,8 @@ public abstract class BasePage {
      */
     public void navigateToPage() {
         String url = getPageUrl();
-        driver.get(url);
+        NavigationTimer.navigate(driver, url, this::waitForPageToLoad);
         logger.info("Navigated to page: {}", url);
-        waitForPageToLoad();
     }
     
     /**
@@ -263,18 +265,18 @@ public abstract class BasePage {
     }
     
     /**
-     * Navigate back
+     * Navigate back and wait until the page shown is ready
      */
     public void navigateBack() {
-        driver.navigate().back();
+        NavigationTimer.back(driver);
         logger.info("Navigated back");
     }
     
     /**
-     * Navigate forward
+     * Navigate forward and wait until the page shown is ready
      */
     public void navigateForward() {
-        driver.navigate().forward();
+        NavigationTimer.forward(driver);
         logger.info("Navigated forward");
     }
     
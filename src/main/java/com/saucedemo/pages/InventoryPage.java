@@ -1,6 +1,7 @@
 package com.saucedemo.pages;
 
 import com.saucedemo.utils.ElementUtils;
+import com.saucedemo.utils.TestDataManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
@@ -353,16 +354,7 @@ public class InventoryPage extends BasePage {
      * @return true if sorted correctly, false otherwise
      */
     public boolean verifyProductsSortedByNameAscending() {
-        List<String> productNames = getAllProductNames();
-        for (int i = 0; i < productNames.size() - 1; i++) {
-            if (productNames.get(i).compareToIgnoreCase(productNames.get(i + 1)) > 0) {
-                logger.error("Products not sorted by name ascending at position {}: '{}' > '{}'", 
-                           i, productNames.get(i), productNames.get(i + 1));
-                return false;
-            }
-        }
-        logger.info("Products verified as sorted by name ascending");
-        return true;
+        return TestDataManager.matchesExpectedSortOrder("name_asc", getAllProductNames());
     }
     
     /**
@@ -370,16 +362,7 @@ public class InventoryPage extends BasePage {
      * @return true if sorted correctly, false otherwise
      */
     public boolean verifyProductsSortedByNameDescending() {
-        List<String> productNames = getAllProductNames();
-        for (int i = 0; i < productNames.size() - 1; i++) {
-            if (productNames.get(i).compareToIgnoreCase(productNames.get(i + 1)) < 0) {
-                logger.error("Products not sorted by name descending at position {}: '{}' < '{}'", 
-                           i, productNames.get(i), productNames.get(i + 1));
-                return false;
-            }
-        }
-        logger.info("Products verified as sorted by name descending");
-        return true;
+        return TestDataManager.matchesExpectedSortOrder("name_desc", getAllProductNames());
     }
     
     /**
@@ -387,16 +370,7 @@ public class InventoryPage extends BasePage {
      * @return true if sorted correctly, false otherwise
      */
     public boolean verifyProductsSortedByPriceAscending() {
-        List<Double> prices = getAllProductPricesAsDouble();
-        for (int i = 0; i < prices.size() - 1; i++) {
-            if (prices.get(i) > prices.get(i + 1)) {
-                logger.error("Products not sorted by price ascending at position {}: {} > {}", 
-                           i, prices.get(i), prices.get(i + 1));
-                return false;
-            }
-        }
-        logger.info("Products verified as sorted by price ascending");
-        return true;
+        return TestDataManager.matchesExpectedSortOrder("price_asc", getAllProductPricesAsDouble());
     }
     
     /**
@@ -404,16 +378,7 @@ public class InventoryPage extends BasePage {
      * @return true if sorted correctly, false otherwise
      */
     public boolean verifyProductsSortedByPriceDescending() {
-        List<Double> prices = getAllProductPricesAsDouble();
-        for (int i = 0; i < prices.size() - 1; i++) {
-            if (prices.get(i) < prices.get(i + 1)) {
-                logger.error("Products not sorted by price descending at position {}: {} < {}", 
-                           i, prices.get(i), prices.get(i + 1));
-                return false;
-            }
-        }
-        logger.info("Products verified as sorted by price descending");
-        return true;
+        return TestDataManager.matchesExpectedSortOrder("price_desc", getAllProductPricesAsDouble());
     }
     
     /**
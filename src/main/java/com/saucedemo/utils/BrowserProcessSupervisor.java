@@ -0,0 +1,343 @@
+package com.saucedemo.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Supervises the driver and browser processes started by local drivers
+ * Every tracked process is written to a per-JVM ledger under browser.process.ledger.dir. At startup, ledgers
+ * of JVMs that are no longer alive are read and their surviving processes killed. While sessions run, their
+ * process trees are sampled against browser.memory.ceiling.mb; a session over its ceiling is not reused.
+ * Sessions that fail to quit within browser.quit.timeout.seconds are killed together with their browser.
+ * Process trees and memory are read through ProcessHandle and /proc, so memory ceilings apply on Linux only.
+ */
+public class BrowserProcessSupervisor {
+    private static final Logger logger = LogManager.getLogger(BrowserProcessSupervisor.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final long START_TIME_TOLERANCE_MILLIS = 1000;
+    // Time a cleanly quit browser gets to finish exiting before its leftovers are killed
+    private static final long QUIT_GRACE_MILLIS = 2000;
+    private static volatile BrowserProcessSupervisor instance;
+    
+    private final long ownPid = ProcessHandle.current().pid();
+    private final Path ledgerFile;
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Session> sessionThreadLocal = new ThreadLocal<>();
+    private final ExecutorService quitExecutor = Executors.newCachedThreadPool(daemonThreads("driver-quit"));
+    private ScheduledExecutorService memoryMonitor;
+    
+    private BrowserProcessSupervisor(Path ledgerDir) {
+        this.ledgerFile = ledgerDir.resolve(ownPid + ".json");
+        reapOrphans(ledgerDir);
+        startMemoryMonitor();
+    }
+    
+    /**
+     * Check if driver and browser processes are supervised
+     * @return true if browser.process.supervision is set
+     */
+    public static boolean isEnabled() {
+        return config.isBrowserProcessSupervisionEnabled();
+    }
+    
+    /**
+     * Get the supervisor of this JVM, reaping orphans of dead JVMs on first use
+     * @return BrowserProcessSupervisor instance
+     */
+    public static BrowserProcessSupervisor getInstance() {
+        if (instance == null) {
+            synchronized (BrowserProcessSupervisor.class) {
+                if (instance == null) {
+                    instance = new BrowserProcessSupervisor(Paths.get(config.getBrowserProcessLedgerDir()));
+                }
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Track the processes of the driver just started on the current thread
+     * The driver process is the JVM child listening on the service port; the browser is its descendant.
+     * @param browserName Browser name
+     * @param service Running driver service
+     */
+    public void track(String browserName, DriverService service) {
+        String portArgument = "--port=" + service.getUrl().getPort();
+        Optional<ProcessHandle> driverProcess = ProcessHandle.current().children()
+            .filter(child -> child.info().arguments()
+                .map(arguments -> List.of(arguments).contains(portArgument))
+                .orElse(false))
+            .findFirst();
+        
+        if (driverProcess.isEmpty()) {
+            logger.debug("No driver process found listening with {}, {} session is not supervised", portArgument, browserName);
+            return;
+        }
+        
+        Session session = new Session(browserName, driverProcess.get());
+        session.refresh();
+        sessions.add(session);
+        sessionThreadLocal.set(session);
+        writeLedger();
+        logger.debug("Supervising {} session: driver pid {}, {} browser processes",
+                    browserName, session.driver.pid(), session.processes.size() - 1);
+    }
+    
+    /**
+     * Check if the current thread's browser went over its memory ceiling
+     * @return true if the session should be quit rather than reused
+     */
+    public boolean isOverCeiling() {
+        Session session = sessionThreadLocal.get();
+        return session != null && session.overCeiling;
+    }
+    
+    /**
+     * Quit a driver within the quit deadline, killing its processes if quit fails or hangs
+     * Processes still alive after a successful quit are killed as well.
+     * @param driver WebDriver instance of the current thread
+     */
+    public void quit(WebDriver driver) {
+        Session session = sessionThreadLocal.get();
+        sessionThreadLocal.remove();
+        if (session != null) {
+            session.refresh();
+        }
+        
+        Future<?> quit = quitExecutor.submit(driver::quit);
+        long graceMillis = 0;
+        try {
+            quit.get(config.getBrowserQuitTimeoutSeconds(), TimeUnit.SECONDS);
+            logger.info("WebDriver quit successfully");
+            graceMillis = QUIT_GRACE_MILLIS;
+        } catch (TimeoutException e) {
+            quit.cancel(true);
+            logger.error("WebDriver did not quit within {} seconds, killing its processes", config.getBrowserQuitTimeoutSeconds());
+        } catch (ExecutionException e) {
+            logger.error("Error while quitting WebDriver, killing its processes", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while quitting WebDriver, killing its processes");
+        }
+        
+        if (session != null) {
+            int killed = session.killSurvivors(graceMillis);
+            if (killed > 0) {
+                logger.warn("Killed {} {} processes left behind by quit", killed, session.browserName);
+            }
+            sessions.remove(session);
+            writeLedger();
+        }
+    }
+    
+    /**
+     * Kill processes recorded in the ledgers of JVMs that are no longer running
+     */
+    private void reapOrphans(Path ledgerDir) {
+        if (!Files.isDirectory(ledgerDir)) {
+            return;
+        }
+        
+        int reaped = 0;
+        try (DirectoryStream<Path> ledgers = Files.newDirectoryStream(ledgerDir, "*.json")) {
+            for (Path ledger : ledgers) {
+                String owner = ledger.getFileName().toString().replace(".json", "");
+                boolean ownerAlive = ProcessHandle.of(Long.parseLong(owner)).map(ProcessHandle::isAlive).orElse(false);
+                if (ownerAlive) {
+                    continue;
+                }
+                
+                List<ProcessRecord> records = objectMapper.readValue(ledger.toFile(), new TypeReference<List<ProcessRecord>>() {});
+                for (ProcessRecord record : records) {
+                    Optional<ProcessHandle> process = ProcessHandle.of(record.pid).filter(record::matches);
+                    if (process.isPresent()) {
+                        logger.warn("Killing orphaned process {} ({}) left by JVM {}", record.pid, record.command, owner);
+                        process.get().destroyForcibly();
+                        reaped++;
+                    }
+                }
+                Files.deleteIfExists(ledger);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to reap orphaned browser processes from {}", ledgerDir, e);
+        }
+        
+        if (reaped > 0) {
+            logger.info("Reaped {} orphaned driver and browser processes", reaped);
+        }
+    }
+    
+    private void startMemoryMonitor() {
+        int intervalSeconds = config.getBrowserMemoryCheckIntervalSeconds();
+        if (intervalSeconds <= 0 || !Files.isDirectory(Paths.get("/proc"))) {
+            return;
+        }
+        memoryMonitor = Executors.newSingleThreadScheduledExecutor(daemonThreads("browser-memory-monitor"));
+        memoryMonitor.scheduleWithFixedDelay(this::checkMemory, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+    
+    private void checkMemory() {
+        try {
+            for (Session session : sessions) {
+                int ceilingMb = config.getBrowserMemoryCeilingMb(session.browserName);
+                session.refresh();
+                long residentMb = session.residentMb();
+                if (ceilingMb > 0 && residentMb > ceilingMb && !session.overCeiling) {
+                    session.overCeiling = true;
+                    logger.warn("{} session (driver pid {}) uses {} MB, over its {} MB ceiling; it will not be reused",
+                               session.browserName, session.driver.pid(), residentMb, ceilingMb);
+                }
+            }
+            writeLedger();
+        } catch (RuntimeException e) {
+            logger.debug("Browser memory check failed: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Rewrite this JVM's ledger with every process of its live sessions
+     */
+    private synchronized void writeLedger() {
+        List<ProcessRecord> records = sessions.stream()
+            .flatMap(session -> session.processes.stream())
+            .map(ProcessRecord::of)
+            .filter(record -> record != null)
+            .collect(Collectors.toList());
+        
+        try {
+            Files.createDirectories(ledgerFile.getParent());
+            if (records.isEmpty()) {
+                Files.deleteIfExists(ledgerFile);
+                return;
+            }
+            Path tempFile = ledgerFile.resolveSibling(ledgerFile.getFileName() + ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempFile.toFile(), records);
+            Files.move(tempFile, ledgerFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to write browser process ledger: {}", ledgerFile, e);
+        }
+    }
+    
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /**
+     * Driver process of one session and every process seen in its tree
+     * Browser processes are remembered once seen, since they are re-parented when the driver dies
+     */
+    private static class Session {
+        private final String browserName;
+        private final ProcessHandle driver;
+        private final Set<ProcessHandle> processes = ConcurrentHashMap.newKeySet();
+        private volatile boolean overCeiling;
+        
+        Session(String browserName, ProcessHandle driver) {
+            this.browserName = browserName;
+            this.driver = driver;
+            processes.add(driver);
+        }
+        
+        void refresh() {
+            if (driver.isAlive()) {
+                driver.descendants().forEach(processes::add);
+            }
+            processes.removeIf(process -> !process.isAlive());
+        }
+        
+        long residentMb() {
+            return processes.stream().mapToLong(Session::residentKb).sum() / 1024;
+        }
+        
+        int killSurvivors(long graceMillis) {
+            long deadline = System.currentTimeMillis() + graceMillis;
+            List<ProcessHandle> survivors = new ArrayList<>();
+            for (ProcessHandle process : processes) {
+                try {
+                    process.onExit().get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException | ExecutionException e) {
+                    // Still running, killed below
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (process.isAlive()) {
+                    process.destroyForcibly();
+                    survivors.add(process);
+                }
+            }
+            return survivors.size();
+        }
+        
+        private static long residentKb(ProcessHandle process) {
+            try {
+                for (String line : Files.readAllLines(Paths.get("/proc", String.valueOf(process.pid()), "status"))) {
+                    if (line.startsWith("VmRSS:")) {
+                        return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // Process exited between listing and reading
+            }
+            return 0;
+        }
+    }
+    
+    /**
+     * Ledger entry identifying a process across JVMs; the start time guards against reused pids
+     */
+    public static class ProcessRecord {
+        public long pid;
+        public long startMillis;
+        public String command;
+        
+        static ProcessRecord of(ProcessHandle process) {
+            Optional<Instant> start = process.info().startInstant();
+            if (start.isEmpty()) {
+                return null;
+            }
+            ProcessRecord record = new ProcessRecord();
+            record.pid = process.pid();
+            record.startMillis = start.get().toEpochMilli();
+            record.command = process.info().command().orElse("");
+            return record;
+        }
+        
+        boolean matches(ProcessHandle process) {
+            return process.isAlive() && process.info().startInstant()
+                .map(start -> Math.abs(start.toEpochMilli() - startMillis) < START_TIME_TOLERANCE_MILLIS)
+                .orElse(false);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,307 @@
+package com.saucedemo.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Memory-mapped reader for test data compiled by TestDataCompiler
+ * Datasets and records are read-only views over the mapped file; strings are decoded only when accessed
+ */
+public class CompiledTestData {
+    private static final Logger logger = LogManager.getLogger(CompiledTestData.class);
+    
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final Map<String, String> sourceFingerprints = new HashMap<>();
+    private final Map<String, Integer> datasetTables = new HashMap<>();
+    private final int recordsStart;
+    private final int poolStart;
+    
+    private CompiledTestData(Path file, ByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        
+        ByteBuffer header = buffer.duplicate();
+        if (header.getInt() != TestDataCompiler.MAGIC) {
+            throw new IllegalStateException("Not a compiled test data file: " + file);
+        }
+        int version = header.getInt();
+        if (version != TestDataCompiler.FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported compiled test data version " + version + ": " + file);
+        }
+        
+        int sourceCount = header.getInt();
+        for (int i = 0; i < sourceCount; i++) {
+            String name = readString(header);
+            sourceFingerprints.put(name, readString(header));
+        }
+        
+        int datasetCount = header.getInt();
+        for (int i = 0; i < datasetCount; i++) {
+            String name = readString(header);
+            datasetTables.put(name, header.getInt());
+        }
+        
+        int recordsLength = header.getInt();
+        header.getInt();
+        this.recordsStart = header.position();
+        this.poolStart = recordsStart + recordsLength;
+    }
+    
+    /**
+     * Memory-map a compiled test data file
+     * @param file Compiled test data file
+     * @return CompiledTestData instance
+     */
+    public static CompiledTestData open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CompiledTestData data = new CompiledTestData(file, mapped);
+            logger.info("Memory-mapped compiled test data: {} ({} datasets)", file, data.datasetTables.size());
+            return data;
+        } catch (IOException e) {
+            logger.error("Failed to map compiled test data: {}", file, e);
+            throw new RuntimeException("Could not map compiled test data: " + file, e);
+        }
+    }
+    
+    /**
+     * Check whether the source files changed since compilation
+     * Sources are compared by content, so files rewritten with the same content by a checkout are not stale
+     * @param sourceDir Test data directory
+     * @return true if any source was added, removed or modified
+     */
+    public boolean isStale(Path sourceDir) {
+        List<Path> sources = TestDataCompiler.listSources(sourceDir);
+        if (sources.size() != sourceFingerprints.size()) {
+            logger.debug("Compiled test data is stale: source count changed");
+            return true;
+        }
+        
+        for (Path source : sources) {
+            String name = source.getFileName().toString();
+            if (!TestDataCompiler.contentHash(source).equals(sourceFingerprints.get(name))) {
+                logger.debug("Compiled test data is stale: {} changed", name);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Get a dataset as a list of record views
+     * @param fileName Test data file name
+     * @param section JSON top-level field or Excel sheet name
+     * @return Read-only list of records, or null if the dataset was not compiled
+     */
+    public List<Map<String, String>> getDataset(String fileName, String section) {
+        Integer tableOffset = datasetTables.get(TestDataCompiler.datasetKey(fileName, section));
+        if (tableOffset == null) {
+            return null;
+        }
+        return new DatasetView(recordsStart + tableOffset);
+    }
+    
+    /**
+     * Get a dataset with values that were JSON numbers converted to Double
+     * @param fileName Test data file name
+     * @param section JSON top-level field
+     * @return List of records, or null if the dataset was not compiled
+     */
+    public List<Map<String, Object>> getTypedDataset(String fileName, String section) {
+        Integer tableOffset = datasetTables.get(TestDataCompiler.datasetKey(fileName, section));
+        if (tableOffset == null) {
+            return null;
+        }
+        
+        DatasetView dataset = new DatasetView(recordsStart + tableOffset);
+        List<Map<String, Object>> records = new ArrayList<>(dataset.size());
+        for (int i = 0; i < dataset.size(); i++) {
+            records.add(dataset.get(i).toTypedMap());
+        }
+        return records;
+    }
+    
+    /**
+     * Get compiled file path
+     * @return File path
+     */
+    public Path getFile() {
+        return file;
+    }
+    
+    /**
+     * Read length-prefixed UTF-8 string at the cursor position
+     */
+    private static String readString(ByteBuffer cursor) {
+        byte[] bytes = new byte[cursor.getInt()];
+        cursor.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Decode pool string at a pool offset
+     */
+    private String poolString(int poolOffset) {
+        ByteBuffer cursor = buffer.duplicate();
+        cursor.position(poolStart + poolOffset);
+        return readString(cursor);
+    }
+    
+    /**
+     * Compare pool string with key bytes without decoding
+     */
+    private boolean poolStringEquals(int poolOffset, byte[] keyBytes) {
+        int position = poolStart + poolOffset;
+        if (buffer.getInt(position) != keyBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (buffer.get(position + 4 + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * List view over the records of one dataset
+     */
+    private final class DatasetView extends AbstractList<Map<String, String>> implements RandomAccess {
+        private final int tablePosition;
+        private final int size;
+        
+        DatasetView(int tablePosition) {
+            this.tablePosition = tablePosition;
+            this.size = buffer.getInt(tablePosition);
+        }
+        
+        @Override
+        public RecordView get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Record index " + index + " out of " + size);
+            }
+            return new RecordView(recordsStart + buffer.getInt(tablePosition + 4 + 4 * index));
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+    
+    /**
+     * Map view over the fields of one record
+     */
+    private final class RecordView extends AbstractMap<String, String> {
+        private final int position;
+        private final int fieldCount;
+        
+        RecordView(int position) {
+            this.position = position;
+            this.fieldCount = buffer.getInt(position);
+        }
+        
+        private int keyOffset(int field) {
+            return buffer.getInt(position + 4 + 8 * field);
+        }
+        
+        private int valueOffset(int field) {
+            return buffer.getInt(position + 8 + 8 * field) & ~TestDataCompiler.NUMBER_FLAG;
+        }
+        
+        private boolean isNumber(int field) {
+            return (buffer.getInt(position + 8 + 8 * field) & TestDataCompiler.NUMBER_FLAG) != 0;
+        }
+        
+        Map<String, Object> toTypedMap() {
+            Map<String, Object> typed = new HashMap<>();
+            for (int field = 0; field < fieldCount; field++) {
+                String value = poolString(valueOffset(field));
+                typed.put(poolString(keyOffset(field)), isNumber(field) ? (Object) Double.valueOf(value) : value);
+            }
+            return typed;
+        }
+        
+        private int indexOf(Object key) {
+            if (!(key instanceof String)) {
+                return -1;
+            }
+            byte[] keyBytes = ((String) key).getBytes(StandardCharsets.UTF_8);
+            for (int field = 0; field < fieldCount; field++) {
+                if (poolStringEquals(keyOffset(field), keyBytes)) {
+                    return field;
+                }
+            }
+            return -1;
+        }
+        
+        @Override
+        public String get(Object key) {
+            int field = indexOf(key);
+            return field < 0 ? null : poolString(valueOffset(field));
+        }
+        
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+        
+        @Override
+        public int size() {
+            return fieldCount;
+        }
+        
+        @Override
+        public Set<Map.Entry<String, String>> entrySet() {
+            return new AbstractSet<Map.Entry<String, String>>() {
+                @Override
+                public Iterator<Map.Entry<String, String>> iterator() {
+                    return new Iterator<Map.Entry<String, String>>() {
+                        private int field = 0;
+                        
+                        @Override
+                        public boolean hasNext() {
+                            return field < fieldCount;
+                        }
+                        
+                        @Override
+                        public Map.Entry<String, String> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Map.Entry<String, String> entry = new AbstractMap.SimpleImmutableEntry<>(
+                                poolString(keyOffset(field)), poolString(valueOffset(field)));
+                            field++;
+                            return entry;
+                        }
+                    };
+                }
+                
+                @Override
+                public int size() {
+                    return fieldCount;
+                }
+            };
+        }
+    }
+}
\ No newline at end of file
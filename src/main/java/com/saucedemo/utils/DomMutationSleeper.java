@@ -0,0 +1,122 @@
+package com.saucedemo.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.Sleeper;
+
+import java.time.Duration;
+
+/**
+ * Sleeper for explicit waits that wakes up as soon as the page changes instead of after a fixed interval
+ * Between two checks of a wait condition one async script runs in the page. A MutationObserver installed
+ * on the document, plus load, readystatechange, transition and animation end listeners, complete it on the
+ * first change, so the condition is checked again right after the DOM changes and not at all while it is quiet.
+ * Changes made while the condition was being checked are counted and end the next sleep at once.
+ * Checks are spaced at least the minimum interval apart, so pages that change continuously, e.g. while an
+ * animation runs, cost no more commands than that. Drivers that fail to run async scripts make the wait
+ * fall back to sleeping the polling interval.
+ */
+public class DomMutationSleeper implements Sleeper {
+    private static final Logger logger = LogManager.getLogger(DomMutationSleeper.class);
+    
+    private static final String WAIT_FOR_CHANGE_SCRIPT =
+        "var lastCount = arguments[0], maxWait = arguments[1], done = arguments[arguments.length - 1];" +
+        "var watch = window.__domChangeWatch;" +
+        "if (!watch) {" +
+        "  watch = window.__domChangeWatch = {count: 0, listeners: []};" +
+        "  var notify = function () {" +
+        "    watch.count++;" +
+        "    var listeners = watch.listeners;" +
+        "    watch.listeners = [];" +
+        "    listeners.forEach(function (listener) { listener(); });" +
+        "  };" +
+        "  new MutationObserver(notify).observe(document," +
+        "    {subtree: true, childList: true, attributes: true, characterData: true});" +
+        "  document.addEventListener('readystatechange', notify, true);" +
+        "  ['load', 'transitionend', 'animationend'].forEach(function (type) {" +
+        "    window.addEventListener(type, notify, true);" +
+        "  });" +
+        "}" +
+        "if (lastCount >= 0 && watch.count !== lastCount) { done(watch.count); return; }" +
+        "var finished = false;" +
+        "var finish = function () {" +
+        "  if (finished) { return; }" +
+        "  finished = true;" +
+        "  clearTimeout(timer);" +
+        "  watch.listeners = watch.listeners.filter(function (listener) { return listener !== finish; });" +
+        "  done(watch.count);" +
+        "};" +
+        "var timer = setTimeout(finish, maxWait);" +
+        "watch.listeners.push(finish);";
+    
+    private final WebDriver driver;
+    private final Duration pollingInterval;
+    private final Duration minInterval;
+    private long lastChangeCount = -1;
+    private boolean unloadedDuringLastSleep;
+    private boolean polling;
+    
+    /**
+     * Constructor
+     * @param driver WebDriver instance, must implement JavascriptExecutor
+     * @param pollingInterval Interval slept when the browser cannot report changes
+     * @param minInterval Shortest sleep, also when the page changed sooner
+     */
+    public DomMutationSleeper(WebDriver driver, Duration pollingInterval, Duration minInterval) {
+        this.driver = driver;
+        this.pollingInterval = pollingInterval;
+        this.minInterval = minInterval;
+    }
+    
+    /**
+     * Wait until the page changes
+     * @param maxWait Longest time to wait without a change, after which the condition is checked anyway
+     */
+    @Override
+    public void sleep(Duration maxWait) throws InterruptedException {
+        if (polling) {
+            Sleeper.SYSTEM_DEFAULT.sleep(pollingInterval);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        try {
+            Object changeCount = ((JavascriptExecutor) driver).executeAsyncScript(WAIT_FOR_CHANGE_SCRIPT,
+                    lastChangeCount, maxWait.toMillis());
+            lastChangeCount = changeCount instanceof Number ? ((Number) changeCount).longValue() : -1;
+            unloadedDuringLastSleep = false;
+        } catch (ScriptTimeoutException e) {
+            // The driver's script timeout is shorter than maxWait, which only delays the next check
+            lastChangeCount = -1;
+        } catch (JavascriptException e) {
+            // A navigation unloaded the document while waiting, which is a change as well. Twice in a row
+            // means the script itself fails in this page, so stop trying instead of spinning.
+            lastChangeCount = -1;
+            if (unloadedDuringLastSleep) {
+                fallBackToPolling(e);
+            }
+            unloadedDuringLastSleep = true;
+        } catch (WebDriverException e) {
+            fallBackToPolling(e);
+            return;
+        }
+        
+        // Changes made during this pause are counted by the page and end the next sleep at once
+        long remainingNanos = minInterval.toNanos() - (System.nanoTime() - start);
+        if (remainingNanos > 0) {
+            Sleeper.SYSTEM_DEFAULT.sleep(Duration.ofNanos(remainingNanos));
+        }
+    }
+    
+    private void fallBackToPolling(WebDriverException e) throws InterruptedException {
+        logger.debug("Page changes cannot be observed, falling back to polling every {} ms: {}",
+                    pollingInterval.toMillis(), e.getMessage());
+        polling = true;
+        Sleeper.SYSTEM_DEFAULT.sleep(pollingInterval);
+    }
+}
\ No newline at end of file
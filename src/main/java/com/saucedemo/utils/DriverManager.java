@@ -1,24 +1,38 @@
 package com.saucedemo.utils;
 
 import com.saucedemo.config.ConfigManager;
+import com.saucedemo.execution.ImpactRecorder;
 import io.github.bonigarcia.wdm.WebDriverManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
-import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.service.DriverService;
 import org.openqa.selenium.safari.SafariDriver;
+import org.openqa.selenium.safari.SafariOptions;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * WebDriver Manager for handling browser instances
@@ -27,6 +41,20 @@ import java.util.Map;
 public class DriverManager {
     private static final Logger logger = LogManager.getLogger(DriverManager.class);
     private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<String> browserThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<PageLoadStrategy> pageLoadStrategyThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> reuseThreadLocal = ThreadLocal.withInitial(() -> false);
+    private static final Set<WebDriver> reusedDrivers = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * Tag prefix that pins a scenario to a browser, e.g. @browser:firefox
+     */
+    public static final String BROWSER_TAG_PREFIX = "@browser:";
+    
+    /**
+     * Tag prefix that sets a scenario's page load strategy, e.g. @pageload:eager
+     */
+    public static final String PAGE_LOAD_TAG_PREFIX = "@pageload:";
     private static final ConfigManager config = ConfigManager.getInstance();
     
     /**
@@ -34,50 +62,141 @@ public class DriverManager {
      * @param browserName Browser name (chrome, firefox, edge, safari)
      */
     public static void initializeDriver(String browserName) {
+        initializeDriver(browserName, getPageLoadStrategyForTags(Collections.emptyList()));
+    }
+    
+    /**
+     * Initialize WebDriver with a page load strategy
+     * The strategy is a session capability, so a warm driver is only reused when it was started with the same one
+     * @param browserName Browser name (chrome, firefox, edge, safari)
+     * @param pageLoadStrategy When navigation commands return: after the load event (NORMAL), after
+     *                         DOMContentLoaded (EAGER) or right away (NONE)
+     */
+    public static void initializeDriver(String browserName, PageLoadStrategy pageLoadStrategy) {
         if (browserName == null) {
             browserName = config.getBrowser();
         }
         
-        logger.info("Initializing {} driver", browserName);
+        if (reuseThreadLocal.get() && driverThreadLocal.get() != null) {
+            if (reusedDrivers.contains(driverThreadLocal.get())
+                    && browserName.equalsIgnoreCase(browserThreadLocal.get())
+                    && pageLoadStrategy == pageLoadStrategyThreadLocal.get()) {
+                logger.info("Reusing warm {} driver on thread {}", browserName, Thread.currentThread().getName());
+                return;
+            }
+            quitDriver();
+        }
+        
+        logger.info("Initializing {} driver ({} launch profile, {} page load strategy)", browserName,
+                   config.getBrowserLaunchProfile(), pageLoadStrategy);
+        long startTime = System.currentTimeMillis();
         
         WebDriver driver;
         
         if (config.isGridEnabled()) {
-            driver = createRemoteDriver(browserName);
+            driver = createRemoteDriver(browserName, pageLoadStrategy);
         } else {
-            driver = createLocalDriver(browserName);
+            driver = createLocalDriver(browserName, pageLoadStrategy);
+        }
+        
+        if (ImpactRecorder.isEnabled()) {
+            driver = ImpactRecorder.decorate(driver);
         }
         
         // Configure driver timeouts
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(config.getImplicitWait()));
         driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(config.getPageLoadTimeout()));
-        driver.manage().window().maximize();
+        if (!isPerformanceProfile()) {
+            driver.manage().window().maximize();
+        } else if ("safari".equalsIgnoreCase(browserName)) {
+            // Safari takes no window size argument, the other browsers start at the configured size
+            driver.manage().window().setSize(getWindowSize());
+        }
         
         driverThreadLocal.set(driver);
-        logger.info("{} driver initialized successfully", browserName);
+        if (reuseThreadLocal.get()) {
+            reusedDrivers.add(driver);
+        }
+        browserThreadLocal.set(browserName);
+        pageLoadStrategyThreadLocal.set(pageLoadStrategy);
+        logger.info("{} driver initialized successfully in {} ms", browserName, System.currentTimeMillis() - startTime);
+    }
+    
+    /**
+     * Get the browser a scenario is pinned to by a @browser:<name> tag
+     * @param tags Scenario tags
+     * @param defaultBrowser Browser used when the scenario is not pinned
+     * @return Browser name
+     */
+    public static String getBrowserForTags(Collection<String> tags, String defaultBrowser) {
+        for (String tag : tags) {
+            if (tag.startsWith(BROWSER_TAG_PREFIX)) {
+                return tag.substring(BROWSER_TAG_PREFIX.length());
+            }
+        }
+        return defaultBrowser;
+    }
+    
+    /**
+     * Get the page load strategy of a scenario, set by a @pageload:<strategy> tag or page.load.strategy
+     * @param tags Scenario tags
+     * @return Page load strategy
+     */
+    public static PageLoadStrategy getPageLoadStrategyForTags(Collection<String> tags) {
+        String strategy = config.getPageLoadStrategy();
+        for (String tag : tags) {
+            if (tag.startsWith(PAGE_LOAD_TAG_PREFIX)) {
+                strategy = tag.substring(PAGE_LOAD_TAG_PREFIX.length());
+            }
+        }
+        
+        try {
+            return PageLoadStrategy.valueOf(strategy.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported page load strategy: " + strategy
+                + ", expected normal, eager or none", e);
+        }
+    }
+    
+    /**
+     * Get the page load strategy of the current thread's driver
+     * @return Page load strategy, NORMAL when no driver was started
+     */
+    public static PageLoadStrategy getPageLoadStrategy() {
+        PageLoadStrategy strategy = pageLoadStrategyThreadLocal.get();
+        return strategy != null ? strategy : PageLoadStrategy.NORMAL;
     }
     
     /**
      * Create local WebDriver instance
      * @param browserName Browser name
+     * @param pageLoadStrategy Page load strategy
      * @return WebDriver instance
      */
-    private static WebDriver createLocalDriver(String browserName) {
+    private static WebDriver createLocalDriver(String browserName, PageLoadStrategy pageLoadStrategy) {
         switch (browserName.toLowerCase()) {
             case "chrome":
                 WebDriverManager.chromedriver().setup();
-                return new ChromeDriver(getChromeOptions());
+                ChromeDriverService chromeService = ChromeDriverService.createDefaultService();
+                return supervise(browserName, new ChromeDriver(chromeService, getChromeOptions(pageLoadStrategy)),
+                    chromeService);
                 
             case "firefox":
                 WebDriverManager.firefoxdriver().setup();
-                return new FirefoxDriver(getFirefoxOptions());
+                GeckoDriverService geckoService = GeckoDriverService.createDefaultService();
+                return supervise(browserName, new FirefoxDriver(geckoService, getFirefoxOptions(pageLoadStrategy)),
+                    geckoService);
                 
             case "edge":
                 WebDriverManager.edgedriver().setup();
-                return new EdgeDriver(getEdgeOptions());
+                EdgeDriverService edgeService = EdgeDriverService.createDefaultService();
+                return supervise(browserName, new EdgeDriver(edgeService, getEdgeOptions(pageLoadStrategy)),
+                    edgeService);
                 
             case "safari":
-                return new SafariDriver();
+                SafariOptions safariOptions = new SafariOptions();
+                safariOptions.setPageLoadStrategy(pageLoadStrategy);
+                return new SafariDriver(safariOptions);
                 
             default:
                 logger.error("Unsupported browser: {}", browserName);
@@ -85,24 +204,39 @@ public class DriverManager {
         }
     }
     
+    /**
+     * Hand the processes of a new local driver to the process supervisor
+     * @param browserName Browser name
+     * @param driver WebDriver instance
+     * @param service Driver service the driver runs on
+     * @return The same driver
+     */
+    private static WebDriver supervise(String browserName, WebDriver driver, DriverService service) {
+        if (BrowserProcessSupervisor.isEnabled()) {
+            BrowserProcessSupervisor.getInstance().track(browserName, service);
+        }
+        return driver;
+    }
+    
     /**
      * Create remote WebDriver instance for Selenium Grid
      * @param browserName Browser name
+     * @param pageLoadStrategy Page load strategy
      * @return WebDriver instance
      */
-    private static WebDriver createRemoteDriver(String browserName) {
+    private static WebDriver createRemoteDriver(String browserName, PageLoadStrategy pageLoadStrategy) {
         try {
             URL gridUrl = new URL(config.getGridHubUrl());
             
             switch (browserName.toLowerCase()) {
                 case "chrome":
-                    return new RemoteWebDriver(gridUrl, getChromeOptions());
+                    return GridClientFactory.createDriver(gridUrl, getChromeOptions(pageLoadStrategy));
                     
                 case "firefox":
-                    return new RemoteWebDriver(gridUrl, getFirefoxOptions());
+                    return GridClientFactory.createDriver(gridUrl, getFirefoxOptions(pageLoadStrategy));
                     
                 case "edge":
-                    return new RemoteWebDriver(gridUrl, getEdgeOptions());
+                    return GridClientFactory.createDriver(gridUrl, getEdgeOptions(pageLoadStrategy));
                     
                 default:
                     logger.error("Unsupported browser for grid execution: {}", browserName);
@@ -116,29 +250,27 @@ public class DriverManager {
     
     /**
      * Get Chrome options
+     * @param pageLoadStrategy Page load strategy
      * @return ChromeOptions
      */
-    private static ChromeOptions getChromeOptions() {
+    private static ChromeOptions getChromeOptions(PageLoadStrategy pageLoadStrategy) {
         ChromeOptions options = new ChromeOptions();
+        options.setPageLoadStrategy(pageLoadStrategy);
+        applyChromiumProfile(options);
         
-        if (config.isHeadless()) {
-            options.addArguments("--headless");
-        }
-        
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
         options.addArguments("--disable-extensions");
         options.addArguments("--disable-infobars");
         options.addArguments("--disable-notifications");
         options.addArguments("--disable-popup-blocking");
-        options.addArguments("--remote-allow-origins=*");
         
         // Performance optimizations
         Map<String, Object> prefs = new HashMap<>();
         prefs.put("profile.default_content_setting_values.notifications", 2);
         prefs.put("profile.default_content_settings.popups", 0);
-        prefs.put("profile.managed_default_content_settings.images", 2);
+        if (!ResourceBlocker.isEnabled()) {
+            // Without DevTools blocking images are switched off for every scenario
+            prefs.put("profile.managed_default_content_settings.images", 2);
+        }
         options.setExperimentalOption("prefs", prefs);
         
         return options;
@@ -146,10 +278,12 @@ public class DriverManager {
     
     /**
      * Get Firefox options
+     * @param pageLoadStrategy Page load strategy
      * @return FirefoxOptions
      */
-    private static FirefoxOptions getFirefoxOptions() {
+    private static FirefoxOptions getFirefoxOptions(PageLoadStrategy pageLoadStrategy) {
         FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(pageLoadStrategy);
         
         if (config.isHeadless()) {
             options.addArguments("--headless");
@@ -158,18 +292,60 @@ public class DriverManager {
         options.addArguments("--no-sandbox");
         options.addArguments("--disable-dev-shm-usage");
         
+        if (isPerformanceProfile()) {
+            Dimension windowSize = getWindowSize();
+            options.addArguments("--width=" + windowSize.getWidth());
+            options.addArguments("--height=" + windowSize.getHeight());
+            
+            // Same intent as the Chromium flags: no background timer throttling, no first-run work
+            options.addPreference("dom.min_background_timeout_value", 0);
+            options.addPreference("dom.timeout.enable_budget_timer_throttling", false);
+            options.addPreference("dom.webnotifications.enabled", false);
+            options.addPreference("browser.shell.checkDefaultBrowser", false);
+            options.addPreference("browser.startup.page", 0);
+            options.addPreference("app.update.auto", false);
+            options.addPreference("datareporting.policy.dataSubmissionEnabled", false);
+            options.addPreference("toolkit.telemetry.reportingpolicy.firstRun", false);
+        }
+        
+        // Firefox has no CDP network blocking, so blocked images fall back to a profile preference
+        if (ResourceBlocker.isEnabled() && ResourceBlocker.getCategories(Collections.emptyList()).contains("images")) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        
         return options;
     }
     
     /**
      * Get Edge options
+     * @param pageLoadStrategy Page load strategy
      * @return EdgeOptions
      */
-    private static EdgeOptions getEdgeOptions() {
+    private static EdgeOptions getEdgeOptions(PageLoadStrategy pageLoadStrategy) {
         EdgeOptions options = new EdgeOptions();
+        options.setPageLoadStrategy(pageLoadStrategy);
+        applyChromiumProfile(options);
+        
+        // Edge never had these flags, so the legacy profile starts it exactly as before
+        if (isPerformanceProfile()) {
+            options.addArguments("--disable-extensions");
+            options.addArguments("--disable-notifications");
+        }
+        
+        return options;
+    }
+    
+    /**
+     * Apply the launch arguments shared by Chrome and Edge
+     * The performance profile uses the new headless mode, starts at the configured window size and keeps
+     * timers and renderers of background or occluded windows at full speed; legacy keeps the old flags.
+     * @param options Chrome or Edge options
+     */
+    private static void applyChromiumProfile(ChromiumOptions<?> options) {
+        boolean performance = isPerformanceProfile();
         
         if (config.isHeadless()) {
-            options.addArguments("--headless");
+            options.addArguments(performance ? "--headless=new" : "--headless");
         }
         
         options.addArguments("--no-sandbox");
@@ -177,7 +353,39 @@ public class DriverManager {
         options.addArguments("--disable-gpu");
         options.addArguments("--remote-allow-origins=*");
         
-        return options;
+        if (performance) {
+            Dimension windowSize = getWindowSize();
+            options.addArguments("--window-size=" + windowSize.getWidth() + "," + windowSize.getHeight());
+            options.addArguments("--disable-background-timer-throttling");
+            options.addArguments("--disable-backgrounding-occluded-windows");
+            options.addArguments("--disable-renderer-backgrounding");
+            options.addArguments("--no-first-run");
+            options.addArguments("--no-default-browser-check");
+            options.addArguments("--disable-component-update");
+            options.addArguments("--disable-default-apps");
+            options.addArguments("--disable-sync");
+        }
+    }
+    
+    /**
+     * Check if browsers start with the performance launch profile
+     * @return true unless browser.launch.profile is legacy
+     */
+    private static boolean isPerformanceProfile() {
+        return !"legacy".equalsIgnoreCase(config.getBrowserLaunchProfile());
+    }
+    
+    /**
+     * Get the fixed window size of the performance profile
+     * @return Window size from browser.window.size (WIDTHxHEIGHT)
+     */
+    private static Dimension getWindowSize() {
+        String[] size = config.getBrowserWindowSize().toLowerCase().split("x");
+        if (size.length != 2) {
+            throw new IllegalArgumentException("browser.window.size must look like 1920x1080, got: "
+                + config.getBrowserWindowSize());
+        }
+        return new Dimension(Integer.parseInt(size[0].trim()), Integer.parseInt(size[1].trim()));
     }
     
     /**
@@ -200,13 +408,81 @@ public class DriverManager {
         WebDriver driver = driverThreadLocal.get();
         if (driver != null) {
             try {
+                // A warm driver missing from reusedDrivers was already quit by quitReusedDrivers
+                if (!reuseThreadLocal.get() || reusedDrivers.remove(driver)) {
+                    quit(driver);
+                }
+            } finally {
+                driverThreadLocal.remove();
+                browserThreadLocal.remove();
+                pageLoadStrategyThreadLocal.remove();
+            }
+        }
+    }
+    
+    /**
+     * Quit every driver kept alive by driver reuse, whichever thread started it
+     * Pool threads that end without quitting their warm browser leave it to the caller of this method
+     */
+    public static void quitReusedDrivers() {
+        for (WebDriver driver : reusedDrivers) {
+            if (reusedDrivers.remove(driver)) {
+                quit(driver);
+            }
+        }
+    }
+    
+    private static void quit(WebDriver driver) {
+        try {
+            if (BrowserProcessSupervisor.isEnabled()) {
+                BrowserProcessSupervisor.getInstance().quit(driver);
+            } else {
                 driver.quit();
                 logger.info("WebDriver quit successfully");
+            }
+        } catch (Exception e) {
+            logger.error("Error while quitting WebDriver", e);
+        }
+    }
+    
+    /**
+     * Keep the current thread's WebDriver alive across scenarios
+     * Long-lived worker threads enable this so each scenario starts on a warm browser
+     * @param reuse true to reuse the driver, false to quit it after every scenario
+     */
+    public static void setDriverReuse(boolean reuse) {
+        reuseThreadLocal.set(reuse);
+    }
+    
+    /**
+     * Release current thread's WebDriver at the end of a scenario
+     * With driver reuse the browser is reset to a clean state and kept, otherwise it is quit
+     */
+    public static void releaseDriver() {
+        WebDriver driver = driverThreadLocal.get();
+        if (driver == null || !reuseThreadLocal.get()) {
+            quitDriver();
+            return;
+        }
+        if (BrowserProcessSupervisor.isEnabled() && BrowserProcessSupervisor.getInstance().isOverCeiling()) {
+            logger.info("Browser is over its memory ceiling, quitting it instead of reusing it");
+            quitDriver();
+            return;
+        }
+        
+        try {
+            // Storage is per origin, so clear it before leaving the application page
+            try {
+                ((JavascriptExecutor) driver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
             } catch (Exception e) {
-                logger.error("Error while quitting WebDriver", e);
-            } finally {
-                driverThreadLocal.remove();
+                logger.debug("Web storage not accessible on current page: {}", e.getMessage());
             }
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+            logger.info("WebDriver reset for reuse");
+        } catch (Exception e) {
+            logger.warn("Failed to reset WebDriver for reuse, quitting it instead", e);
+            quitDriver();
         }
     }
     
@@ -239,7 +515,7 @@ public class DriverManager {
      */
     public static String getCurrentBrowser() {
         WebDriver driver = getDriver();
-        return ((RemoteWebDriver) driver).getCapabilities().getBrowserName();
+        return ((HasCapabilities) driver).getCapabilities().getBrowserName();
     }
     
     /**
@@ -9,6 +9,7 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.util.List;
 
@@ -21,11 +22,21 @@ public class ElementUtils {
     
     /**
      * Get WebDriverWait instance
+     * In event wait mode the condition is checked again as soon as the page changes, see DomMutationSleeper
      * @param driver WebDriver instance
      * @return WebDriverWait instance
      */
     private static WebDriverWait getWait(WebDriver driver) {
-        return new WebDriverWait(driver, Duration.ofSeconds(config.getExplicitWait()));
+        Duration timeout = Duration.ofSeconds(config.getExplicitWait());
+        Duration pollingInterval = Duration.ofMillis(config.getWaitPollingIntervalMs());
+        
+        if ("event".equalsIgnoreCase(config.getWaitMode()) && driver instanceof JavascriptExecutor) {
+            DomMutationSleeper sleeper = new DomMutationSleeper(driver, pollingInterval,
+                    Duration.ofMillis(config.getWaitEventMinIntervalMs()));
+            return new WebDriverWait(driver, timeout, Duration.ofMillis(config.getWaitEventMaxSleepMs()),
+                    Clock.systemDefaultZone(), sleeper);
+        }
+        return new WebDriverWait(driver, timeout, pollingInterval);
     }
     
     /**
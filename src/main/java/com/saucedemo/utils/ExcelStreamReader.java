@@ -0,0 +1,342 @@
+package com.saucedemo.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Streaming reader for XLSX sheets based on the POI event model
+ * Rows are pulled lazily from the sheet XML, so memory stays constant regardless of sheet size
+ */
+public class ExcelStreamReader implements Iterator<Map<String, String>>, Closeable {
+    private static final Logger logger = LogManager.getLogger(ExcelStreamReader.class);
+    private static final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+    
+    private final OPCPackage opcPackage;
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final InputStream sheetStream;
+    private final XMLStreamReader xmlReader;
+    private final String sheetName;
+    
+    private List<String> headers;
+    private Map<String, String> nextRow;
+    private int rowCount = 0;
+    private boolean closed = false;
+    
+    private ExcelStreamReader(OPCPackage opcPackage, ReadOnlySharedStringsTable sharedStrings,
+                              InputStream sheetStream, String sheetName) throws XMLStreamException {
+        this.opcPackage = opcPackage;
+        this.sharedStrings = sharedStrings;
+        this.sheetStream = sheetStream;
+        this.sheetName = sheetName;
+        this.xmlReader = xmlInputFactory.createXMLStreamReader(sheetStream);
+    }
+    
+    /**
+     * Open a streaming reader positioned at the first data row of a sheet
+     * The first row of the sheet is treated as the header row
+     * @param file Excel file
+     * @param sheetName Sheet name
+     * @return ExcelStreamReader instance, must be closed by the caller
+     */
+    public static ExcelStreamReader open(File file, String sheetName) {
+        OPCPackage opcPackage = null;
+        try {
+            opcPackage = OPCPackage.open(file, PackageAccess.READ);
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+            
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            while (sheets.hasNext()) {
+                InputStream sheetStream = sheets.next();
+                if (sheetName.equals(sheets.getSheetName())) {
+                    ExcelStreamReader reader = new ExcelStreamReader(opcPackage, sharedStrings, sheetStream, sheetName);
+                    reader.readHeaders();
+                    logger.debug("Opened streaming reader for sheet '{}' in {}", sheetName, file.getName());
+                    return reader;
+                }
+                sheetStream.close();
+            }
+            
+            throw new IllegalArgumentException("Sheet not found: " + sheetName);
+        } catch (IOException | OpenXML4JException | SAXException | XMLStreamException e) {
+            revertQuietly(opcPackage);
+            logger.error("Failed to open streaming reader for: {}", file, e);
+            throw new RuntimeException("Could not stream Excel data: " + file.getName(), e);
+        } catch (RuntimeException e) {
+            revertQuietly(opcPackage);
+            throw e;
+        }
+    }
+    
+    /**
+     * Get sheet names of a workbook in workbook order without loading sheet contents
+     * @param file Excel file
+     * @return List of sheet names
+     */
+    public static List<String> getSheetNames(File file) {
+        OPCPackage opcPackage = null;
+        try {
+            opcPackage = OPCPackage.open(file, PackageAccess.READ);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(opcPackage).getSheetsData();
+            List<String> sheetNames = new ArrayList<>();
+            
+            while (sheets.hasNext()) {
+                try (InputStream sheetStream = sheets.next()) {
+                    sheetNames.add(sheets.getSheetName());
+                }
+            }
+            return sheetNames;
+        } catch (IOException | OpenXML4JException e) {
+            logger.error("Failed to read sheet names from: {}", file, e);
+            throw new RuntimeException("Could not read sheet names: " + file.getName(), e);
+        } finally {
+            revertQuietly(opcPackage);
+        }
+    }
+    
+    @Override
+    public boolean hasNext() {
+        if (nextRow == null && !closed) {
+            nextRow = readNextDataRow();
+        }
+        return nextRow != null;
+    }
+    
+    @Override
+    public Map<String, String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more rows in sheet: " + sheetName);
+        }
+        Map<String, String> row = nextRow;
+        nextRow = null;
+        rowCount++;
+        return row;
+    }
+    
+    /**
+     * Get header names read from the first row
+     * @return List of header names
+     */
+    public List<String> getHeaders() {
+        return headers;
+    }
+    
+    /**
+     * Get number of data rows returned so far
+     * @return Row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        
+        try {
+            xmlReader.close();
+            sheetStream.close();
+        } catch (XMLStreamException | IOException e) {
+            logger.warn("Failed to close sheet stream: {}", sheetName, e);
+        } finally {
+            revertQuietly(opcPackage);
+        }
+        logger.debug("Closed streaming reader for sheet '{}' after {} rows", sheetName, rowCount);
+    }
+    
+    /**
+     * Read the header row
+     */
+    private void readHeaders() throws XMLStreamException {
+        Map<Integer, String> headerCells = readNextRowCells();
+        headers = new ArrayList<>();
+        if (headerCells != null) {
+            headers.addAll(headerCells.values());
+        }
+    }
+    
+    /**
+     * Read the next data row and map it to headers
+     * @return Row data or null at end of sheet
+     */
+    private Map<String, String> readNextDataRow() {
+        try {
+            Map<Integer, String> cells = readNextRowCells();
+            if (cells == null) {
+                close();
+                return null;
+            }
+            
+            Map<String, String> rowData = new HashMap<>();
+            for (int j = 0; j < headers.size(); j++) {
+                rowData.put(headers.get(j), cells.getOrDefault(j, ""));
+            }
+            return rowData;
+        } catch (XMLStreamException e) {
+            close();
+            logger.error("Failed to read row from sheet: {}", sheetName, e);
+            throw new RuntimeException("Could not stream Excel row from sheet: " + sheetName, e);
+        }
+    }
+    
+    /**
+     * Advance the XML cursor over the next row element
+     * @return Cell values keyed by zero-based column index, or null at end of sheet
+     */
+    private Map<Integer, String> readNextRowCells() throws XMLStreamException {
+        Map<Integer, String> cells = null;
+        String cellType = null;
+        boolean formula = false;
+        int columnIndex = -1;
+        int nextColumn = 0;
+        StringBuilder value = new StringBuilder();
+        boolean inValue = false;
+        
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (xmlReader.getLocalName()) {
+                    case "row":
+                        cells = new TreeMap<>();
+                        nextColumn = 0;
+                        break;
+                    case "c":
+                        String reference = xmlReader.getAttributeValue(null, "r");
+                        columnIndex = reference != null ? columnIndexOf(reference) : nextColumn;
+                        cellType = xmlReader.getAttributeValue(null, "t");
+                        formula = false;
+                        value.setLength(0);
+                        break;
+                    case "f":
+                        formula = true;
+                        break;
+                    case "v":
+                    case "t":
+                        inValue = cells != null;
+                        break;
+                    default:
+                        break;
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                if (inValue) {
+                    value.append(xmlReader.getText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                switch (xmlReader.getLocalName()) {
+                    case "v":
+                    case "t":
+                        inValue = false;
+                        break;
+                    case "c":
+                        if (cells != null) {
+                            cells.put(columnIndex, formatCellValue(cellType, formula, value.toString()));
+                            nextColumn = columnIndex + 1;
+                        }
+                        break;
+                    case "row":
+                        return cells;
+                    default:
+                        break;
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Convert raw cell XML value to the same string form produced by the DOM reader
+     * Formula cells yield "" like in the DOM reader, which does not evaluate formulas, even though the sheet
+     * holds their cached result
+     * @param cellType Cell type attribute
+     * @param formula Whether the cell holds a formula
+     * @param rawValue Raw cell value
+     * @return Formatted cell value
+     */
+    private String formatCellValue(String cellType, boolean formula, String rawValue) {
+        if (formula || rawValue.isEmpty()) {
+            return "";
+        }
+        
+        if (cellType == null || "n".equals(cellType)) {
+            try {
+                return String.valueOf(Double.parseDouble(rawValue));
+            } catch (NumberFormatException e) {
+                return rawValue;
+            }
+        }
+        
+        switch (cellType) {
+            case "s":
+                return sharedStrings.getItemAt(Integer.parseInt(rawValue)).getString();
+            case "b":
+                return String.valueOf("1".equals(rawValue));
+            case "inlineStr":
+            case "str":
+                return rawValue;
+            default:
+                return "";
+        }
+    }
+    
+    /**
+     * Get zero-based column index from a cell reference such as "AB12"
+     * @param reference Cell reference
+     * @return Column index
+     */
+    private static int columnIndexOf(String reference) {
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char ch = reference.charAt(i);
+            if (!Character.isLetter(ch)) {
+                break;
+            }
+            column = column * 26 + (Character.toUpperCase(ch) - 'A' + 1);
+        }
+        return column - 1;
+    }
+    
+    /**
+     * Create a hardened StAX factory
+     */
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+    
+    /**
+     * Release the package without writing any changes back
+     */
+    private static void revertQuietly(OPCPackage opcPackage) {
+        if (opcPackage != null) {
+            opcPackage.revert();
+        }
+    }
+}
\ No newline at end of file
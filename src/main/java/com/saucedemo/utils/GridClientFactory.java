@@ -0,0 +1,196 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the HTTP client used to talk to a Selenium Grid
+ * All sessions on a grid address share one JDK HTTP client, so its keep-alive connection pool is reused
+ * across the commands of every session and a new session does not open new connections while idle ones
+ * exist. Connect and read timeouts come from config, and each WebDriver command is timed so the suite can
+ * report which commands the grid round trip is spent on.
+ */
+public class GridClientFactory {
+    private static final Logger logger = LogManager.getLogger(GridClientFactory.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    // Session, element and shadow root ids are collapsed so commands group by endpoint
+    private static final Pattern ID_SEGMENT = Pattern.compile("/(session|element|shadow)/(?!active\\b)[^/]+");
+    private static final Map<String, CommandLatency> latencies = new ConcurrentHashMap<>();
+    private static final Map<String, HttpClient> sharedClients = new ConcurrentHashMap<>();
+    private static volatile boolean clientConfigured;
+    
+    /**
+     * Start a remote session on the grid with the tuned HTTP client
+     * @param gridUrl Grid address
+     * @param options Browser options
+     * @return RemoteWebDriver
+     */
+    public static WebDriver createDriver(URL gridUrl, Capabilities options) {
+        configureHttpClient();
+        HttpCommandExecutor executor = new HttpCommandExecutor(
+                Collections.emptyMap(), createClientConfig(gridUrl), GridClientFactory::sessionClient);
+        return new RemoteWebDriver(executor, options);
+    }
+    
+    /**
+     * Get the client config for a grid address
+     * @param gridUrl Grid address
+     * @return ClientConfig with timeouts and, when enabled, the latency filter
+     */
+    public static ClientConfig createClientConfig(URL gridUrl) {
+        ClientConfig clientConfig = ClientConfig.defaultConfig()
+                .baseUrl(gridUrl)
+                .connectionTimeout(Duration.ofSeconds(config.getGridConnectTimeoutSeconds()))
+                .readTimeout(Duration.ofSeconds(config.getGridReadTimeoutSeconds()));
+        
+        if (config.isGridCommandMetricsEnabled()) {
+            clientConfig = clientConfig.withFilter(latencyFilter());
+        }
+        return clientConfig;
+    }
+    
+    /**
+     * Select the HTTP client implementation and size the connection pool of the shared client
+     * The JDK client reads its pool settings once, when the first client is created, so they are set
+     * before the first session and values passed on the command line are left alone.
+     */
+    private static synchronized void configureHttpClient() {
+        if (clientConfigured) {
+            return;
+        }
+        setIfAbsent("webdriver.http.factory", config.getGridHttpClientFactory());
+        setIfAbsent("jdk.httpclient.connectionPoolSize", String.valueOf(config.getGridHttpPoolSize()));
+        setIfAbsent("jdk.httpclient.keepalive.timeout", String.valueOf(config.getGridHttpKeepAliveSeconds()));
+        clientConfigured = true;
+        
+        logger.info("Grid HTTP client: {}, pool size {}, keep-alive {}s, connect timeout {}s, read timeout {}s",
+                   System.getProperty("webdriver.http.factory"),
+                   System.getProperty("jdk.httpclient.connectionPoolSize"),
+                   System.getProperty("jdk.httpclient.keepalive.timeout"),
+                   config.getGridConnectTimeoutSeconds(), config.getGridReadTimeoutSeconds());
+    }
+    
+    /**
+     * Get a session's view of the client shared by all sessions on the same grid address
+     * Closing it when the session quits leaves the shared client and its pooled connections open.
+     */
+    private static HttpClient sessionClient(ClientConfig clientConfig) {
+        HttpClient shared = sharedClients.computeIfAbsent(clientConfig.baseUrl().toString(),
+                url -> HttpClient.Factory.createDefault().createClient(clientConfig));
+        return new HttpClient() {
+            @Override
+            public HttpResponse execute(HttpRequest request) {
+                return shared.execute(request);
+            }
+            
+            @Override
+            public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+                return shared.openSocket(request, listener);
+            }
+            
+            @Override
+            public void close() {
+            }
+        };
+    }
+    
+    private static void setIfAbsent(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+    
+    private static Filter latencyFilter() {
+        return next -> request -> {
+            long start = System.nanoTime();
+            try {
+                return next.execute(request);
+            } finally {
+                latencies.computeIfAbsent(commandName(request), name -> new CommandLatency())
+                        .record(System.nanoTime() - start);
+            }
+        };
+    }
+    
+    /**
+     * Get the endpoint a request was sent to, e.g. "POST /session/{id}/element/{id}/click"
+     * @param request HTTP request
+     * @return Command name
+     */
+    static String commandName(HttpRequest request) {
+        String path = request.getUri();
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        return request.getMethod() + " " + ID_SEGMENT.matcher(path).replaceAll("/$1/{id}");
+    }
+    
+    /**
+     * Log per-command latency of all grid sessions, slowest total first
+     */
+    public static void logSummary() {
+        if (latencies.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, CommandLatency>> commands = new ArrayList<>(latencies.entrySet());
+        commands.sort((a, b) -> Long.compare(b.getValue().totalNanos(), a.getValue().totalNanos()));
+        
+        long requests = commands.stream().mapToLong(entry -> entry.getValue().count()).sum();
+        long totalNanos = commands.stream().mapToLong(entry -> entry.getValue().totalNanos()).sum();
+        logger.info("Grid commands: {} requests, {} ms total", requests, totalNanos / 1_000_000);
+        for (Map.Entry<String, CommandLatency> entry : commands) {
+            logger.info("  {}", entry.getValue().describe(entry.getKey()));
+        }
+    }
+    
+    /**
+     * Latency samples of one command
+     */
+    private static class CommandLatency {
+        private final List<Long> samples = new ArrayList<>();
+        private long totalNanos;
+        
+        synchronized void record(long nanos) {
+            samples.add(nanos);
+            totalNanos += nanos;
+        }
+        
+        synchronized long count() {
+            return samples.size();
+        }
+        
+        synchronized long totalNanos() {
+            return totalNanos;
+        }
+        
+        synchronized String describe(String name) {
+            List<Long> sorted = new ArrayList<>(samples);
+            Collections.sort(sorted);
+            long p95 = sorted.get(Math.max(0, (int) Math.ceil(sorted.size() * 0.95) - 1));
+            return String.format("%s: %d calls, mean %.1f ms, p95 %.1f ms, max %.1f ms", name, sorted.size(),
+                    totalNanos / 1e6 / sorted.size(), p95 / 1e6, sorted.get(sorted.size() - 1) / 1e6);
+        }
+    }
+}
\ No newline at end of file
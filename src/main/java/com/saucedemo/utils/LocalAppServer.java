@@ -0,0 +1,192 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded HTTP server serving a local replica of the SauceDemo login, inventory, cart and checkout flows
+ * Pages are static files under localapp/ on the test classpath and keep the ids, classes and data-test
+ * attributes the page objects target. Products and users come from the test data files.
+ * Selected with app.target=local; the server then overrides app.url for the rest of the JVM.
+ */
+public class LocalAppServer {
+    private static final Logger logger = LogManager.getLogger(LocalAppServer.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    private static final String RESOURCE_ROOT = "localapp";
+    private static final String APP_URL_PROPERTY = "app.url";
+    private static final Map<String, String> CONTENT_TYPES = new HashMap<>();
+    
+    static {
+        CONTENT_TYPES.put("html", "text/html; charset=utf-8");
+        CONTENT_TYPES.put("js", "application/javascript; charset=utf-8");
+        CONTENT_TYPES.put("css", "text/css; charset=utf-8");
+        CONTENT_TYPES.put("svg", "image/svg+xml");
+    }
+    
+    private static HttpServer server;
+    private static ExecutorService executor;
+    private static String previousAppUrl;
+    private static int users;
+    private static final AtomicLong requestCount = new AtomicLong();
+    private static final AtomicLong serveNanos = new AtomicLong();
+    
+    /**
+     * Check if scenarios run against the local stand-in
+     * @return true if app.target is local
+     */
+    public static boolean isEnabled() {
+        return "local".equalsIgnoreCase(config.getAppTarget());
+    }
+    
+    /**
+     * Start the server, or join the one already running in this JVM, and point app.url at it
+     * @return Local application URL
+     */
+    public static synchronized String start() {
+        users++;
+        if (server != null) {
+            return getUrl();
+        }
+        
+        try {
+            InetAddress loopback = InetAddress.getLoopbackAddress();
+            server = HttpServer.create(new InetSocketAddress(loopback, config.getLocalAppPort()), 0);
+            executor = Executors.newFixedThreadPool(config.getLocalAppThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "local-app");
+                thread.setDaemon(true);
+                return thread;
+            });
+            server.setExecutor(executor);
+            server.createContext("/", LocalAppServer::handle);
+            server.start();
+        } catch (IOException e) {
+            users--;
+            server = null;
+            logger.error("Failed to start local application server", e);
+            throw new RuntimeException("Could not start local application server", e);
+        }
+        
+        previousAppUrl = System.getProperty(APP_URL_PROPERTY);
+        System.setProperty(APP_URL_PROPERTY, getUrl());
+        logger.info("Local application server started at {}", getUrl());
+        return getUrl();
+    }
+    
+    /**
+     * Leave the server, stopping it and restoring app.url when the last user leaves
+     */
+    public static synchronized void stop() {
+        if (server == null || --users > 0) {
+            return;
+        }
+        
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        
+        if (previousAppUrl != null) {
+            System.setProperty(APP_URL_PROPERTY, previousAppUrl);
+        } else {
+            System.clearProperty(APP_URL_PROPERTY);
+        }
+        
+        long requests = requestCount.get();
+        logger.info("Local application server stopped: {} requests served, {} ms average",
+                   requests, requests > 0 ? String.format("%.2f", serveNanos.get() / 1_000_000.0 / requests) : "0");
+    }
+    
+    /**
+     * Get the URL the server listens on
+     * @return Local application URL, or null if not running
+     */
+    public static synchronized String getUrl() {
+        if (server == null) {
+            return null;
+        }
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+    
+    private static void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/")) {
+                path = "/index.html";
+            }
+            
+            byte[] body = path.equals("/app-data.js") ? appData() : readResource(path);
+            if (body == null) {
+                send(exchange, 404, "text/plain", ("Not found: " + path).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            String extension = path.substring(path.lastIndexOf('.') + 1);
+            send(exchange, 200, CONTENT_TYPES.getOrDefault(extension, "application/octet-stream"), body);
+        } catch (RuntimeException e) {
+            logger.warn("Local application request failed: {}", exchange.getRequestURI(), e);
+            send(exchange, 500, "text/plain", String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        } finally {
+            requestCount.incrementAndGet();
+            serveNanos.addAndGet(System.nanoTime() - start);
+            exchange.close();
+        }
+    }
+    
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+    
+    /**
+     * Read a static page or asset from the classpath
+     */
+    private static byte[] readResource(String path) throws IOException {
+        if (path.contains("..")) {
+            return null;
+        }
+        try (InputStream input = LocalAppServer.class.getClassLoader().getResourceAsStream(RESOURCE_ROOT + path)) {
+            if (input == null) {
+                return null;
+            }
+            return input.readAllBytes();
+        }
+    }
+    
+    /**
+     * Script exposing the products and users test data to the pages
+     */
+    private static byte[] appData() throws IOException {
+        String testDataPath = config.getTestDataPath();
+        String products = new String(Files.readAllBytes(Paths.get(testDataPath, "products.json")), StandardCharsets.UTF_8);
+        String users = new String(Files.readAllBytes(Paths.get(testDataPath, "users.json")), StandardCharsets.UTF_8);
+        return ("window.APP_DATA = {\"products\": " + products + ",\n\"users\": " + users + "};\n")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Navigates and waits until the page object is ready, measuring the time the page load strategy saves
+ * With EAGER or NONE the navigation command returns before the load event, so the page object's readiness check
+ * decides when the test continues. The load event of each page is looked up later, at the next navigation or when
+ * the scenario ends, and the gap between readiness and load event is reported as time saved.
+ */
+public class NavigationTimer {
+    private static final Logger logger = LogManager.getLogger(NavigationTimer.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    private static final String MARK_LEAVING_SCRIPT = "window.__leavingDocument = true;";
+    // History navigation within a single-page app keeps the document, so a changed URL counts as well
+    private static final String NEW_DOCUMENT_SCRIPT =
+        "return window.__leavingDocument !== true || window.location.href !== arguments[0];";
+    private static final String DOCUMENT_READY_SCRIPT = "return document.readyState !== 'loading';";
+    // Page clock times are relative to the start of the navigation that created the document
+    private static final String READY_SCRIPT =
+        "window.__navigationToken = arguments[0];" +
+        "var entry = performance.getEntriesByType ? performance.getEntriesByType('navigation')[0] : null;" +
+        "return [performance.now(), entry ? entry.loadEventEnd : 0];";
+    private static final String LOAD_EVENT_SCRIPT =
+        "if (window.__navigationToken !== arguments[0]) { return -1; }" +
+        "var entry = performance.getEntriesByType ? performance.getEntriesByType('navigation')[0] : null;" +
+        "return entry ? entry.loadEventEnd : 0;";
+    
+    private static final AtomicLong tokens = new AtomicLong();
+    private static final ThreadLocal<PendingLoad> pendingLoad = new ThreadLocal<>();
+    private static final Map<PageLoadStrategy, NavigationStats> stats = new ConcurrentHashMap<>();
+    
+    /**
+     * Navigate to a URL and wait until the page is ready
+     * @param driver WebDriver instance
+     * @param url URL to open
+     * @param readinessCheck Waits until the page can be used, e.g. the page object's waitForPageToLoad
+     */
+    public static void navigate(WebDriver driver, String url, Runnable readinessCheck) {
+        navigate(driver, url, () -> driver.get(url), readinessCheck);
+    }
+    
+    /**
+     * Go back in the browser history and wait until the page is ready
+     * The page shown is not known in advance, so readiness is the DOM having been parsed
+     * @param driver WebDriver instance
+     */
+    public static void back(WebDriver driver) {
+        navigate(driver, "history back", () -> driver.navigate().back(), () -> waitForDocumentReady(driver));
+    }
+    
+    /**
+     * Go forward in the browser history and wait until the page is ready
+     * @param driver WebDriver instance
+     */
+    public static void forward(WebDriver driver) {
+        navigate(driver, "history forward", () -> driver.navigate().forward(), () -> waitForDocumentReady(driver));
+    }
+    
+    private static void navigate(WebDriver driver, String target, Runnable navigation, Runnable readinessCheck) {
+        settle(driver);
+        PageLoadStrategy strategy = DriverManager.getPageLoadStrategy();
+        
+        long start = System.nanoTime();
+        if (strategy == PageLoadStrategy.NONE) {
+            // The command may return while the previous document is still shown, so wait until it is replaced
+            String previousUrl = driver.getCurrentUrl();
+            executeScript(driver, MARK_LEAVING_SCRIPT);
+            navigation.run();
+            pageLoadWait(driver).until(d -> Boolean.TRUE.equals(executeScript(d, NEW_DOCUMENT_SCRIPT, previousUrl)));
+        } else {
+            navigation.run();
+        }
+        readinessCheck.run();
+        long readyMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        NavigationStats navigationStats = stats.computeIfAbsent(strategy, key -> new NavigationStats());
+        navigationStats.navigations.incrementAndGet();
+        navigationStats.readyMillis.addAndGet(readyMillis);
+        
+        String token = String.valueOf(tokens.incrementAndGet());
+        logger.debug("Navigation to {} ready in {} ms ({} page load strategy)", target, readyMillis, strategy);
+        Object timing = executeScript(driver, READY_SCRIPT, token);
+        if (!(timing instanceof List) || ((List<?>) timing).size() < 2) {
+            navigationStats.unmeasured.incrementAndGet();
+            return;
+        }
+        
+        double readyAt = ((Number) ((List<?>) timing).get(0)).doubleValue();
+        double loadEventEnd = ((Number) ((List<?>) timing).get(1)).doubleValue();
+        if (loadEventEnd > 0) {
+            recordSaved(navigationStats, target, loadEventEnd - readyAt);
+        } else {
+            pendingLoad.set(new PendingLoad(driver, target, token, readyAt, navigationStats));
+        }
+    }
+    
+    private static void waitForDocumentReady(WebDriver driver) {
+        pageLoadWait(driver).until(d -> Boolean.TRUE.equals(executeScript(d, DOCUMENT_READY_SCRIPT)));
+    }
+    
+    private static WebDriverWait pageLoadWait(WebDriver driver) {
+        return new WebDriverWait(driver, Duration.ofSeconds(config.getPageLoadTimeout()), Duration.ofMillis(50));
+    }
+    
+    /**
+     * Measure the load event of the last page navigated to on this thread
+     * Call before the driver is released, later pages replace the document and its timing
+     * @param driver WebDriver the last navigation used
+     */
+    public static void settle(WebDriver driver) {
+        PendingLoad pending = pendingLoad.get();
+        if (pending == null) {
+            return;
+        }
+        pendingLoad.remove();
+        
+        Object loadEventEnd = pending.driver == driver
+                ? executeScript(driver, LOAD_EVENT_SCRIPT, pending.token) : null;
+        if (loadEventEnd instanceof Number && ((Number) loadEventEnd).doubleValue() > 0) {
+            recordSaved(pending.stats, pending.url, ((Number) loadEventEnd).doubleValue() - pending.readyAt);
+        } else {
+            // The page was left or is still loading, so how much time was saved is not known
+            pending.stats.unmeasured.incrementAndGet();
+        }
+    }
+    
+    private static void recordSaved(NavigationStats navigationStats, String url, double savedMillis) {
+        long saved = Math.max(0, Math.round(savedMillis));
+        navigationStats.savedMillis.addAndGet(saved);
+        navigationStats.measured.incrementAndGet();
+        if (saved > 0) {
+            logger.debug("Page {} was ready {} ms before its load event", url, saved);
+        }
+    }
+    
+    private static Object executeScript(WebDriver driver, String script, Object... args) {
+        try {
+            return ((JavascriptExecutor) driver).executeScript(script, args);
+        } catch (WebDriverException | ClassCastException e) {
+            logger.debug("Navigation timing unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Log navigation count, time to ready and time saved for each page load strategy used
+     */
+    public static void logSummary() {
+        stats.forEach((strategy, navigationStats) -> {
+            long navigations = navigationStats.navigations.get();
+            long measured = navigationStats.measured.get();
+            logger.info("Navigations with {} page load strategy: {}, average {} ms to ready, {} ms saved per "
+                       + "navigation before the load event ({} measured, {} not measurable)", strategy, navigations,
+                       navigationStats.readyMillis.get() / Math.max(1, navigations),
+                       navigationStats.savedMillis.get() / Math.max(1, measured), measured,
+                       navigationStats.unmeasured.get());
+        });
+    }
+    
+    /**
+     * Navigation whose load event had not fired when the page was ready
+     */
+    private static class PendingLoad {
+        private final WebDriver driver;
+        private final String url;
+        private final String token;
+        private final double readyAt;
+        private final NavigationStats stats;
+        
+        PendingLoad(WebDriver driver, String url, String token, double readyAt, NavigationStats stats) {
+            this.driver = driver;
+            this.url = url;
+            this.token = token;
+            this.readyAt = readyAt;
+            this.stats = stats;
+        }
+    }
+    
+    /**
+     * Totals of one page load strategy
+     */
+    private static class NavigationStats {
+        private final AtomicLong navigations = new AtomicLong();
+        private final AtomicLong readyMillis = new AtomicLong();
+        private final AtomicLong savedMillis = new AtomicLong();
+        private final AtomicLong measured = new AtomicLong();
+        private final AtomicLong unmeasured = new AtomicLong();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,176 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Blocks configured categories of requests (images, fonts, analytics, ...) through the DevTools protocol
+ * Categories come from resource.blocking.categories and are mapped to URL patterns by
+ * resource.blocking.pattern.<category>. A scenario opts a category back in with @allow:<category>
+ * (or everything with @allow:all) and blocks an extra one with @block:<category>.
+ * Blocking uses the version independent CDP commands, so it works on Chrome and Edge of any version
+ * Selenium can drive; other browsers run unblocked.
+ * A pattern without a trailing * also matches the URL followed by a query string, so *.png blocks
+ * logo.png?v=2 as well. Only the number of blocked requests is reported: a blocked request never
+ * transfers a body, so its size is unknown.
+ */
+public class ResourceBlocker {
+    private static final Logger logger = LogManager.getLogger(ResourceBlocker.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    public static final String ALLOW_TAG_PREFIX = "@allow:";
+    public static final String BLOCK_TAG_PREFIX = "@block:";
+    private static final String ALL = "all";
+    private static final List<String> CDP_BROWSERS = Arrays.asList("chrome", "msedge", "microsoftedge");
+    
+    private static final ThreadLocal<Session> sessionThreadLocal = new ThreadLocal<>();
+    private static final AtomicInteger totalBlocked = new AtomicInteger();
+    
+    /**
+     * Check if resource blocking is enabled
+     * @return true if resource.blocking.enabled is set
+     */
+    public static boolean isEnabled() {
+        return config.isResourceBlockingEnabled();
+    }
+    
+    /**
+     * Get the categories blocked for a scenario
+     * @param tags Scenario tags
+     * @return Blocked categories
+     */
+    public static Set<String> getCategories(Collection<String> tags) {
+        Set<String> categories = Arrays.stream(config.getResourceBlockingCategories().split(","))
+            .map(String::trim)
+            .filter(category -> !category.isEmpty())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        
+        for (String tag : tags) {
+            if (tag.startsWith(BLOCK_TAG_PREFIX)) {
+                categories.add(tag.substring(BLOCK_TAG_PREFIX.length()));
+            }
+        }
+        for (String tag : tags) {
+            if (tag.equals(ALLOW_TAG_PREFIX + ALL)) {
+                return Collections.emptySet();
+            }
+            if (tag.startsWith(ALLOW_TAG_PREFIX)) {
+                categories.remove(tag.substring(ALLOW_TAG_PREFIX.length()));
+            }
+        }
+        return categories;
+    }
+    
+    /**
+     * Apply the blocked URL patterns of a scenario to the current thread's driver
+     * The DevTools session is opened on first use and kept for as long as the driver lives.
+     * Failures are logged and ignored, blocking only saves time.
+     * @param driver WebDriver instance
+     * @param tags Scenario tags
+     */
+    public static void apply(WebDriver driver, Collection<String> tags) {
+        if (!isEnabled() || !supportsCdp(driver)) {
+            return;
+        }
+        
+        Set<String> categories = getCategories(tags);
+        List<String> patterns = categories.stream()
+            .flatMap(category -> Arrays.stream(config.getResourceBlockingPatterns(category).split(",")))
+            .map(String::trim)
+            .filter(pattern -> !pattern.isEmpty())
+            .flatMap(pattern -> pattern.endsWith("*") ? Stream.of(pattern) : Stream.of(pattern, pattern + "?*"))
+            .collect(Collectors.toList());
+        
+        try {
+            Session session = sessionThreadLocal.get();
+            if (session == null || session.driver != driver) {
+                session = new Session(driver);
+                sessionThreadLocal.set(session);
+            }
+            session.devTools.send(new Command<>("Network.setBlockedURLs", Collections.singletonMap("urls", patterns)));
+            logger.debug("Blocking {} ({} URL patterns)", categories, patterns.size());
+        } catch (RuntimeException e) {
+            logger.warn("Resource blocking unavailable, running unblocked: {}", e.getMessage());
+            sessionThreadLocal.remove();
+        }
+    }
+    
+    /**
+     * Log and reset the current thread's counters at the end of a scenario
+     * @param scenarioName Scenario name
+     */
+    public static void scenarioFinished(String scenarioName) {
+        Session session = sessionThreadLocal.get();
+        if (session == null) {
+            return;
+        }
+        int blocked = session.blocked.getAndSet(0);
+        if (blocked > 0) {
+            logger.info("Scenario '{}' blocked {} requests", scenarioName, blocked);
+        }
+    }
+    
+    /**
+     * Log blocked request totals of the run
+     */
+    public static void logSummary() {
+        if (isEnabled()) {
+            logger.info("Resource blocking: {} requests blocked", totalBlocked.get());
+        }
+    }
+    
+    private static boolean supportsCdp(WebDriver driver) {
+        if (!(driver instanceof HasDevTools) || !(driver instanceof HasCapabilities)) {
+            return false;
+        }
+        String browserName = ((HasCapabilities) driver).getCapabilities().getBrowserName();
+        return browserName != null && CDP_BROWSERS.contains(browserName.toLowerCase());
+    }
+    
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+    
+    /**
+     * DevTools session of one driver with the counters of its current scenario
+     */
+    private static class Session {
+        private final WebDriver driver;
+        private final DevTools devTools;
+        private final AtomicInteger blocked = new AtomicInteger();
+        
+        Session(WebDriver driver) {
+            this.driver = driver;
+            this.devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<>("Network.enable", Collections.emptyMap()));
+            
+            devTools.addListener(event("Network.loadingFailed"), params -> {
+                // setBlockedURLs failures carry the "inspector" blocked reason
+                if ("inspector".equals(params.get("blockedReason"))) {
+                    blocked.incrementAndGet();
+                    totalBlocked.incrementAndGet();
+                }
+            });
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.saucedemo.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Holds the test data record bound to the scenario running on the current thread
+ * Data-driven scenarios reference record fields in step text as ${field}
+ */
+public class ScenarioDataContext {
+    private static final Logger logger = LogManager.getLogger(ScenarioDataContext.class);
+    private static final ThreadLocal<Map<String, String>> dataRowThreadLocal = new ThreadLocal<>();
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+    
+    /**
+     * Tag prefix that binds a scenario to a data source, e.g. @data:users.json:users
+     */
+    public static final String DATA_TAG_PREFIX = "@data:";
+    
+    /**
+     * Bind a data record to the current thread
+     * @param dataRow Data record
+     */
+    public static void setDataRow(Map<String, String> dataRow) {
+        dataRowThreadLocal.set(dataRow);
+    }
+    
+    /**
+     * Get the data record bound to the current thread
+     * @return Data record, or empty map if none is bound
+     */
+    public static Map<String, String> getDataRow() {
+        Map<String, String> dataRow = dataRowThreadLocal.get();
+        return dataRow != null ? dataRow : Collections.emptyMap();
+    }
+    
+    /**
+     * Check if a data record is bound to the current thread
+     * @return true if bound, false otherwise
+     */
+    public static boolean hasDataRow() {
+        return dataRowThreadLocal.get() != null;
+    }
+    
+    /**
+     * Remove the data record from the current thread
+     */
+    public static void clear() {
+        dataRowThreadLocal.remove();
+    }
+    
+    /**
+     * Replace ${field} placeholders with values of the current data record
+     * Text is returned unchanged when no record is bound
+     * @param text Step text
+     * @return Resolved text
+     */
+    public static String resolve(String text) {
+        Map<String, String> dataRow = dataRowThreadLocal.get();
+        if (dataRow == null || text == null || !text.contains("${")) {
+            return text;
+        }
+        
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        StringBuffer resolved = new StringBuffer();
+        while (matcher.find()) {
+            String field = matcher.group(1);
+            String value = dataRow.get(field);
+            if (value == null) {
+                logger.warn("Data field '{}' not found in current record, keeping placeholder", field);
+                value = matcher.group(0);
+            }
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+    
+    /**
+     * Find the data source declared by a scenario's tags
+     * @param tags Scenario tags
+     * @return Array of {fileName, section}, or null if the scenario is not data-driven
+     */
+    public static String[] findDataSource(List<String> tags) {
+        for (String tag : tags) {
+            if (tag.startsWith(DATA_TAG_PREFIX)) {
+                String source = tag.substring(DATA_TAG_PREFIX.length());
+                int separator = source.lastIndexOf(':');
+                if (separator <= 0 || separator == source.length() - 1) {
+                    throw new IllegalArgumentException("Data tag must look like @data:<file>:<section>, got: " + tag);
+                }
+                return new String[] {source.substring(0, separator), source.substring(separator + 1)};
+            }
+        }
+        return null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,242 @@
+package com.saucedemo.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Build-time compiler that turns JSON and XLSX test data files into a compact binary file
+ * The binary file is memory-mapped at runtime by CompiledTestData
+ *
+ * Layout (big-endian):
+ * header     - magic, version, source fingerprints (name, SHA-256 of the content), dataset directory
+ * records    - per dataset: record count, record offset table, then records of (key, value) string offsets;
+ *              the high bit of a value offset marks a value that was a JSON number
+ * string pool - de-duplicated UTF-8 strings, each prefixed with its byte length
+ */
+public class TestDataCompiler {
+    private static final Logger logger = LogManager.getLogger(TestDataCompiler.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
+    static final int MAGIC = 0x54444231;
+    static final int FORMAT_VERSION = 2;
+    static final int NUMBER_FLAG = 0x80000000;
+    
+    private static final String DEFAULT_SOURCE_DIR = "src/test/resources/testdata/";
+    private static final String DEFAULT_OUTPUT_FILE = "target/compiled-testdata/testdata.bin";
+    
+    /**
+     * Compile test data from the command line
+     * @param args Optional source directory and output file
+     */
+    public static void main(String[] args) {
+        Path sourceDir = Paths.get(args.length > 0 ? args[0] : DEFAULT_SOURCE_DIR);
+        Path outputFile = Paths.get(args.length > 1 ? args[1] : DEFAULT_OUTPUT_FILE);
+        compile(sourceDir, outputFile);
+    }
+    
+    /**
+     * Compile all JSON and XLSX files of a directory into a binary test data file
+     * @param sourceDir Test data directory
+     * @param outputFile Binary output file
+     */
+    public static void compile(Path sourceDir, Path outputFile) {
+        long startTime = System.nanoTime();
+        List<Path> sources = listSources(sourceDir);
+        Map<String, List<Map<String, String>>> datasets = new LinkedHashMap<>();
+        Map<String, List<Set<String>>> numberFields = new HashMap<>();
+        
+        try {
+            for (Path source : sources) {
+                String fileName = source.getFileName().toString();
+                
+                if (TestDataManager.isExcelFile(fileName)) {
+                    for (String sheetName : ExcelStreamReader.getSheetNames(source.toFile())) {
+                        List<Map<String, String>> rows = new ArrayList<>();
+                        try (ExcelStreamReader reader = ExcelStreamReader.open(source.toFile(), sheetName)) {
+                            reader.forEachRemaining(rows::add);
+                        }
+                        datasets.put(datasetKey(fileName, sheetName), rows);
+                    }
+                } else {
+                    JsonNode root = objectMapper.readTree(source.toFile());
+                    Iterator<Map.Entry<String, JsonNode>> sections = root.fields();
+                    while (sections.hasNext()) {
+                        Map.Entry<String, JsonNode> section = sections.next();
+                        String key = datasetKey(fileName, section.getKey());
+                        datasets.put(key, TestDataManager.toRecords(section.getValue()));
+                        numberFields.put(key, TestDataManager.numberFields(section.getValue()));
+                    }
+                }
+            }
+            
+            Files.createDirectories(outputFile.toAbsolutePath().getParent());
+            try (OutputStream out = Files.newOutputStream(outputFile)) {
+                write(sources, datasets, numberFields, out);
+            }
+            
+            logger.info("Compiled {} datasets from {} files into {} in {} ms",
+                       datasets.size(), sources.size(), outputFile, (System.nanoTime() - startTime) / 1_000_000);
+        } catch (IOException e) {
+            logger.error("Failed to compile test data from: {}", sourceDir, e);
+            throw new RuntimeException("Could not compile test data: " + sourceDir, e);
+        }
+    }
+    
+    /**
+     * List compilable test data files sorted by name
+     * @param sourceDir Test data directory
+     * @return List of source files
+     */
+    static List<Path> listSources(Path sourceDir) {
+        try (Stream<Path> files = Files.list(sourceDir)) {
+            return files
+                .filter(Files::isRegularFile)
+                .filter(path -> {
+                    String name = path.getFileName().toString();
+                    return name.endsWith(".json") || TestDataManager.isExcelFile(name);
+                })
+                .sorted()
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.error("Failed to list test data files in: {}", sourceDir, e);
+            throw new RuntimeException("Could not list test data files: " + sourceDir, e);
+        }
+    }
+    
+    /**
+     * Build dataset key from file name and section
+     * @param fileName Test data file name
+     * @param section JSON top-level field or Excel sheet name
+     * @return Dataset key
+     */
+    static String datasetKey(String fileName, String section) {
+        return fileName + "#" + section;
+    }
+    
+    /**
+     * Get the fingerprint of a source file, a hash of its content so a checkout that only touches
+     * modification times does not make the compiled file stale
+     * @param source Source file
+     * @return Hex encoded SHA-256 of the file content
+     */
+    static String contentHash(Path source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(source));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Could not hash test data file: " + source, e);
+        }
+    }
+    
+    /**
+     * Write the binary representation
+     */
+    private static void write(List<Path> sources, Map<String, List<Map<String, String>>> datasets,
+                              Map<String, List<Set<String>>> numberFields, OutputStream target) throws IOException {
+        Map<String, Integer> poolIndex = new HashMap<>();
+        ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+        DataOutputStream pool = new DataOutputStream(poolBytes);
+        
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+        Map<String, Integer> directory = new LinkedHashMap<>();
+        
+        for (Map.Entry<String, List<Map<String, String>>> dataset : datasets.entrySet()) {
+            List<Map<String, String>> rows = dataset.getValue();
+            List<Set<String>> numbers = numberFields.get(dataset.getKey());
+            int tableOffset = records.size();
+            directory.put(dataset.getKey(), tableOffset);
+            
+            // Offset table first, so any record can be reached in constant time
+            records.writeInt(rows.size());
+            int recordOffset = tableOffset + 4 + 4 * rows.size();
+            for (Map<String, String> row : rows) {
+                records.writeInt(recordOffset);
+                recordOffset += 4 + 8 * row.size();
+            }
+            
+            for (int i = 0; i < rows.size(); i++) {
+                Map<String, String> row = rows.get(i);
+                records.writeInt(row.size());
+                for (Map.Entry<String, String> field : row.entrySet()) {
+                    int valueOffset = intern(field.getValue() == null ? "" : field.getValue(), poolIndex, pool);
+                    if (numbers != null && numbers.get(i).contains(field.getKey())) {
+                        valueOffset |= NUMBER_FLAG;
+                    }
+                    records.writeInt(intern(field.getKey(), poolIndex, pool));
+                    records.writeInt(valueOffset);
+                }
+            }
+        }
+        
+        DataOutputStream out = new DataOutputStream(target);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        
+        out.writeInt(sources.size());
+        for (Path source : sources) {
+            writeString(out, source.getFileName().toString());
+            writeString(out, contentHash(source));
+        }
+        
+        out.writeInt(directory.size());
+        for (Map.Entry<String, Integer> entry : directory.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+        
+        out.writeInt(records.size());
+        out.writeInt(pool.size());
+        recordBytes.writeTo(out);
+        poolBytes.writeTo(out);
+        out.flush();
+    }
+    
+    /**
+     * Add a string to the pool once and return its pool offset
+     */
+    private static int intern(String value, Map<String, Integer> poolIndex, DataOutputStream pool) throws IOException {
+        Integer offset = poolIndex.get(value);
+        if (offset == null) {
+            offset = pool.size();
+            writeString(pool, value);
+            poolIndex.put(value, offset);
+        }
+        return offset;
+    }
+    
+    /**
+     * Write length-prefixed UTF-8 string
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,190 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Lease manager that hands each thread an exclusive test data record from a pool
+ * Leases are held until releaseAll() is called at scenario teardown, so parallel scenarios never share
+ * an account or checkout record. With the default wait policy a thread blocks until a record is released and
+ * fails after the lease timeout. The fallback policy shares a record instead; a pool with fewer records than
+ * thread.count is exhausted in normal operation, so it then shares right away without waiting first.
+ */
+public class TestDataLeaseManager {
+    private static final Logger logger = LogManager.getLogger(TestDataLeaseManager.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    public static final String USER_POOL = "users";
+    public static final String CHECKOUT_POOL = "checkout";
+    
+    private static final Map<String, Pool> pools = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Map<String, Lease>> leaseThreadLocal = ThreadLocal.withInitial(HashMap::new);
+    
+    /**
+     * Lease a record from a pool for the current thread
+     * Returns the same record if the thread already holds a lease on the pool
+     * @param poolName Pool name (USER_POOL, CHECKOUT_POOL or a registered pool)
+     * @return Leased record
+     */
+    public static Map<String, String> lease(String poolName) {
+        Map<String, Lease> threadLeases = leaseThreadLocal.get();
+        Lease existing = threadLeases.get(poolName);
+        if (existing != null) {
+            return existing.record;
+        }
+        
+        Pool pool = getPool(poolName);
+        boolean fallback = "fallback".equalsIgnoreCase(config.getDataLeaseExhaustedPolicy());
+        int timeoutSeconds = fallback && pool.isUndersized() ? 0 : config.getDataLeaseTimeoutSeconds();
+        
+        try {
+            Map<String, String> record = pool.available.poll(timeoutSeconds, TimeUnit.SECONDS);
+            if (record != null) {
+                threadLeases.put(poolName, new Lease(record, false));
+                logger.info("Leased record from pool '{}' ({} of {} still available)",
+                           poolName, pool.available.size(), pool.records.size());
+                return record;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for lease on pool: " + poolName, e);
+        }
+        
+        if (!fallback) {
+            logger.error("Pool '{}' exhausted after waiting {} seconds", poolName, timeoutSeconds);
+            throw new IllegalStateException("Test data pool exhausted: " + poolName);
+        }
+        
+        Map<String, String> shared = pool.records.get(pool.fallbackIndex.getAndIncrement() % pool.records.size());
+        threadLeases.put(poolName, new Lease(shared, true));
+        if (pool.isUndersized()) {
+            logger.debug("Pool '{}' has fewer records than threads, sharing record with another thread", poolName);
+        } else {
+            logger.warn("Pool '{}' exhausted after waiting {} seconds, sharing record with another thread",
+                       poolName, timeoutSeconds);
+        }
+        return shared;
+    }
+    
+    /**
+     * Release every lease held by the current thread
+     */
+    public static void releaseAll() {
+        Map<String, Lease> threadLeases = leaseThreadLocal.get();
+        
+        for (Map.Entry<String, Lease> entry : threadLeases.entrySet()) {
+            Lease lease = entry.getValue();
+            if (!lease.shared) {
+                pools.get(entry.getKey()).available.offer(lease.record);
+            }
+            logger.debug("Released lease on pool '{}'", entry.getKey());
+        }
+        
+        leaseThreadLocal.remove();
+    }
+    
+    /**
+     * Register a custom pool, replacing any pool of the same name
+     * @param poolName Pool name
+     * @param records Records in the pool
+     */
+    public static void registerPool(String poolName, List<Map<String, String>> records) {
+        pools.put(poolName, new Pool(records));
+        logger.info("Registered lease pool '{}' with {} records", poolName, records.size());
+    }
+    
+    /**
+     * Get number of records currently available in a pool
+     * @param poolName Pool name
+     * @return Available record count
+     */
+    public static int getAvailableCount(String poolName) {
+        return getPool(poolName).available.size();
+    }
+    
+    /**
+     * Get pool, building the built-in pools from test data on first use
+     */
+    private static Pool getPool(String poolName) {
+        return pools.computeIfAbsent(poolName, name -> {
+            List<Map<String, String>> records;
+            
+            switch (name) {
+                case USER_POOL:
+                    List<String> usernames = Arrays.stream(config.getDataLeaseUserPool().split(","))
+                        .map(String::trim)
+                        .filter(username -> !username.isEmpty())
+                        .collect(Collectors.toList());
+                    records = TestDataManager.getDataRecords("users.json", "users").stream()
+                        .filter(user -> usernames.contains(user.get("username")))
+                        .collect(Collectors.toList());
+                    break;
+                
+                case CHECKOUT_POOL:
+                    records = TestDataManager.getDataRecords("checkout.json", "valid_checkout_data");
+                    break;
+                
+                default:
+                    throw new IllegalArgumentException("Unknown test data pool: " + name);
+            }
+            
+            if (records.isEmpty()) {
+                throw new IllegalStateException("Test data pool is empty: " + name);
+            }
+            
+            logger.info("Created lease pool '{}' with {} records", name, records.size());
+            if (records.size() < config.getThreadCount()) {
+                logger.warn("Lease pool '{}' has {} records for {} threads, concurrent scenarios will {}",
+                           name, records.size(), config.getThreadCount(),
+                           "fallback".equalsIgnoreCase(config.getDataLeaseExhaustedPolicy())
+                               ? "share records" : "wait for a record");
+            }
+            return new Pool(records);
+        });
+    }
+    
+    /**
+     * Pool of records with the subset currently available for lease
+     */
+    private static class Pool {
+        private final List<Map<String, String>> records;
+        private final BlockingQueue<Map<String, String>> available;
+        private final AtomicInteger fallbackIndex = new AtomicInteger();
+        
+        Pool(List<Map<String, String>> records) {
+            this.records = Collections.unmodifiableList(new ArrayList<>(records));
+            this.available = new LinkedBlockingQueue<>(this.records);
+        }
+        
+        boolean isUndersized() {
+            return records.size() < config.getThreadCount();
+        }
+    }
+    
+    /**
+     * Record held by a thread
+     */
+    private static class Lease {
+        private final Map<String, String> record;
+        private final boolean shared;
+        
+        Lease(Map<String, String> record, boolean shared) {
+            this.record = record;
+            this.shared = shared;
+        }
+    }
+}
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.saucedemo.utils;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.saucedemo.config.ConfigManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.ss.usermodel.*;
@@ -10,7 +14,11 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Test Data Manager for handling JSON and Excel test data
@@ -19,6 +27,20 @@ public class TestDataManager {
     private static final Logger logger = LogManager.getLogger(TestDataManager.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String TEST_DATA_PATH = "src/test/resources/testdata/";
+    private static final String RECORD_KEY_FIELD = "_key";
+    
+    private static volatile CompiledTestData compiledTestData;
+    private static volatile boolean compiledTestDataResolved = false;
+    
+    /**
+     * Excel read modes
+     * DOM loads the whole workbook into memory, STREAMING pulls rows lazily from the sheet XML
+     * Both return the same cell strings; formula cells read as "" in either mode
+     */
+    public enum ExcelReadMode {
+        DOM,
+        STREAMING
+    }
     
     /**
      * Read JSON data from file
@@ -43,19 +65,13 @@ public class TestDataManager {
      * @return Map containing user data
      */
     public static Map<String, Object> getUserData(String userType) {
-        JsonNode usersData = readJsonData("users.json");
-        JsonNode userData = usersData.get("users").get(userType);
+        Map<String, Object> userMap = findKeyedRecord("users.json", "users", userType);
         
-        if (userData == null) {
+        if (userMap == null) {
             logger.error("User data not found for: {}", userType);
             throw new IllegalArgumentException("User data not found: " + userType);
         }
         
-        Map<String, Object> userMap = new HashMap<>();
-        userData.fields().forEachRemaining(entry -> {
-            userMap.put(entry.getKey(), entry.getValue().asText());
-        });
-        
         logger.info("Retrieved user data for: {}", userType);
         return userMap;
     }
@@ -66,19 +82,13 @@ public class TestDataManager {
      * @return Map containing invalid user data
      */
     public static Map<String, Object> getInvalidUserData(String invalidUserType) {
-        JsonNode usersData = readJsonData("users.json");
-        JsonNode invalidUserData = usersData.get("invalid_users").get(invalidUserType);
+        Map<String, Object> userMap = findKeyedRecord("users.json", "invalid_users", invalidUserType);
         
-        if (invalidUserData == null) {
+        if (userMap == null) {
             logger.error("Invalid user data not found for: {}", invalidUserType);
             throw new IllegalArgumentException("Invalid user data not found: " + invalidUserType);
         }
         
-        Map<String, Object> userMap = new HashMap<>();
-        invalidUserData.fields().forEachRemaining(entry -> {
-            userMap.put(entry.getKey(), entry.getValue().asText());
-        });
-        
         logger.info("Retrieved invalid user data for: {}", invalidUserType);
         return userMap;
     }
@@ -88,22 +98,7 @@ public class TestDataManager {
      * @return List of product maps
      */
     public static List<Map<String, Object>> getProductData() {
-        JsonNode productsData = readJsonData("products.json");
-        JsonNode products = productsData.get("products");
-        
-        List<Map<String, Object>> productList = new ArrayList<>();
-        
-        for (JsonNode product : products) {
-            Map<String, Object> productMap = new HashMap<>();
-            product.fields().forEachRemaining(entry -> {
-                if (entry.getValue().isNumber()) {
-                    productMap.put(entry.getKey(), entry.getValue().asDouble());
-                } else {
-                    productMap.put(entry.getKey(), entry.getValue().asText());
-                }
-            });
-            productList.add(productMap);
-        }
+        List<Map<String, Object>> productList = getTypedDataRecords("products.json", "products");
         
         logger.info("Retrieved {} products from test data", productList.size());
         return productList;
@@ -114,18 +109,7 @@ public class TestDataManager {
      * @return List of sorting option maps
      */
     public static List<Map<String, Object>> getSortingOptions() {
-        JsonNode productsData = readJsonData("products.json");
-        JsonNode sortingOptions = productsData.get("sorting_options");
-        
-        List<Map<String, Object>> sortingList = new ArrayList<>();
-        
-        for (JsonNode option : sortingOptions) {
-            Map<String, Object> optionMap = new HashMap<>();
-            option.fields().forEachRemaining(entry -> {
-                optionMap.put(entry.getKey(), entry.getValue().asText());
-            });
-            sortingList.add(optionMap);
-        }
+        List<Map<String, Object>> sortingList = getTypedDataRecords("products.json", "sorting_options");
         
         logger.info("Retrieved {} sorting options from test data", sortingList.size());
         return sortingList;
@@ -133,43 +117,91 @@ public class TestDataManager {
     
     /**
      * Get expected sorted products
+     * The orderings are read once from products.json and shared as immutable lists
      * @param sortType Sort type (name_asc, name_desc, price_asc, price_desc)
-     * @return List of expected sorted values
+     * @return Immutable list of expected sorted values (names as String, prices as Double)
      */
     public static List<Object> getExpectedSortedProducts(String sortType) {
-        JsonNode productsData = readJsonData("products.json");
-        JsonNode expectedSorted = productsData.get("expected_sorted_products").get(sortType);
-        
-        List<Object> expectedList = new ArrayList<>();
-        for (JsonNode item : expectedSorted) {
-            if (item.isNumber()) {
-                expectedList.add(item.asDouble());
-            } else {
-                expectedList.add(item.asText());
-            }
+        List<Object> expectedList = SortExpectations.EXPECTED.get(sortType);
+        if (expectedList == null) {
+            logger.error("Unknown sort type: {}", sortType);
+            throw new IllegalArgumentException("Unknown sort type: " + sortType);
         }
         
-        logger.info("Retrieved expected sorted products for: {}", sortType);
+        logger.debug("Retrieved expected sorted products for: {}", sortType);
         return expectedList;
     }
     
     /**
-     * Get valid checkout data from JSON
-     * @return List of valid checkout data maps
+     * Verify a snapshot of UI values is in the order of a sort type, in a single pass
+     * Only the order of neighbouring values is checked, names case-insensitively, so the check holds whichever
+     * products the UI lists.
+     * @param sortType Sort type (name_asc, name_desc, price_asc, price_desc)
+     * @param actualValues Values read from the UI in display order (names or prices)
+     * @return true if the values are sorted, false otherwise
      */
-    public static List<Map<String, Object>> getValidCheckoutData() {
-        JsonNode checkoutData = readJsonData("checkout.json");
-        JsonNode validData = checkoutData.get("valid_checkout_data");
+    public static boolean matchesExpectedSortOrder(String sortType, List<?> actualValues) {
+        Comparator<Object> order = SortExpectations.ORDERS.get(sortType);
+        if (order == null) {
+            logger.error("Unknown sort type: {}", sortType);
+            throw new IllegalArgumentException("Unknown sort type: " + sortType);
+        }
         
-        List<Map<String, Object>> checkoutList = new ArrayList<>();
+        for (int i = 0; i < actualValues.size() - 1; i++) {
+            Object current = actualValues.get(i);
+            Object next = actualValues.get(i + 1);
+            if (order.compare(current, next) > 0) {
+                logger.error("Products not sorted by {} at position {}: '{}' before '{}'", sortType, i, current, next);
+                return false;
+            }
+        }
+        
+        logger.info("Products verified as sorted by {}", sortType);
+        return true;
+    }
+    
+    /**
+     * Sort orders and the expected orderings of products.json, loaded on first use
+     */
+    private static final class SortExpectations {
+        private static final Map<String, Comparator<Object>> ORDERS = sortOrders();
+        private static final Map<String, List<Object>> EXPECTED = loadSortExpectations();
         
-        for (JsonNode data : validData) {
-            Map<String, Object> dataMap = new HashMap<>();
-            data.fields().forEachRemaining(entry -> {
-                dataMap.put(entry.getKey(), entry.getValue().asText());
+        private static Map<String, Comparator<Object>> sortOrders() {
+            Comparator<Object> byName = Comparator.comparing(String::valueOf, String.CASE_INSENSITIVE_ORDER);
+            Comparator<Object> byPrice = Comparator.comparingDouble(value -> ((Number) value).doubleValue());
+            
+            Map<String, Comparator<Object>> orders = new HashMap<>();
+            orders.put("name_asc", byName);
+            orders.put("name_desc", byName.reversed());
+            orders.put("price_asc", byPrice);
+            orders.put("price_desc", byPrice.reversed());
+            return Collections.unmodifiableMap(orders);
+        }
+        
+        private static Map<String, List<Object>> loadSortExpectations() {
+            JsonNode expectedSorted = readJsonData("products.json").get("expected_sorted_products");
+            
+            Map<String, List<Object>> expected = new HashMap<>();
+            expectedSorted.fields().forEachRemaining(entry -> {
+                List<Object> expectedList = new ArrayList<>();
+                for (JsonNode item : entry.getValue()) {
+                    expectedList.add(item.isNumber() ? (Object) item.asDouble() : item.asText());
+                }
+                expected.put(entry.getKey(), Collections.unmodifiableList(expectedList));
             });
-            checkoutList.add(dataMap);
+            
+            logger.info("Loaded expected sort orders: {}", expected.keySet());
+            return Collections.unmodifiableMap(expected);
         }
+    }
+    
+    /**
+     * Get valid checkout data from JSON
+     * @return List of valid checkout data maps
+     */
+    public static List<Map<String, Object>> getValidCheckoutData() {
+        List<Map<String, Object>> checkoutList = getTypedDataRecords("checkout.json", "valid_checkout_data");
         
         logger.info("Retrieved {} valid checkout data sets", checkoutList.size());
         return checkoutList;
@@ -180,18 +212,7 @@ public class TestDataManager {
      * @return List of invalid checkout data maps
      */
     public static List<Map<String, Object>> getInvalidCheckoutData() {
-        JsonNode checkoutData = readJsonData("checkout.json");
-        JsonNode invalidData = checkoutData.get("invalid_checkout_data");
-        
-        List<Map<String, Object>> checkoutList = new ArrayList<>();
-        
-        for (JsonNode data : invalidData) {
-            Map<String, Object> dataMap = new HashMap<>();
-            data.fields().forEachRemaining(entry -> {
-                dataMap.put(entry.getKey(), entry.getValue().asText());
-            });
-            checkoutList.add(dataMap);
-        }
+        List<Map<String, Object>> checkoutList = getTypedDataRecords("checkout.json", "invalid_checkout_data");
         
         logger.info("Retrieved {} invalid checkout data sets", checkoutList.size());
         return checkoutList;
@@ -202,17 +223,7 @@ public class TestDataManager {
      * @return Map containing checkout flow data
      */
     public static Map<String, Object> getCheckoutFlowData() {
-        JsonNode checkoutData = readJsonData("checkout.json");
-        JsonNode flowData = checkoutData.get("checkout_flow");
-        
-        Map<String, Object> flowMap = new HashMap<>();
-        flowData.fields().forEachRemaining(entry -> {
-            if (entry.getValue().isNumber()) {
-                flowMap.put(entry.getKey(), entry.getValue().asDouble());
-            } else {
-                flowMap.put(entry.getKey(), entry.getValue().asText());
-            }
-        });
+        Map<String, Object> flowMap = getTypedDataRecords("checkout.json", "checkout_flow").get(0);
         
         logger.info("Retrieved checkout flow data");
         return flowMap;
@@ -225,6 +236,66 @@ public class TestDataManager {
      * @return List of Maps containing row data
      */
     public static List<Map<String, String>> readExcelData(String fileName, String sheetName) {
+        return readExcelData(fileName, sheetName, ExcelReadMode.DOM);
+    }
+    
+    /**
+     * Read Excel data from file using the given read mode
+     * @param fileName Excel file name
+     * @param sheetName Sheet name
+     * @param mode Read mode (DOM or STREAMING)
+     * @return List of Maps containing row data
+     */
+    public static List<Map<String, String>> readExcelData(String fileName, String sheetName, ExcelReadMode mode) {
+        CompiledTestData compiled = getCompiledTestData();
+        List<Map<String, String>> compiledRows = compiled != null ? compiled.getDataset(fileName, sheetName) : null;
+        if (compiledRows != null) {
+            List<Map<String, String>> data = new ArrayList<>(compiledRows.size());
+            compiledRows.forEach(row -> data.add(new HashMap<>(row)));
+            logger.info("Retrieved {} rows of Excel file: {} from compiled test data", data.size(), fileName);
+            return data;
+        }
+        
+        if (mode == ExcelReadMode.STREAMING) {
+            long startTime = System.nanoTime();
+            List<Map<String, String>> data = new ArrayList<>();
+            
+            try (Stream<Map<String, String>> rows = streamExcelData(fileName, sheetName)) {
+                rows.forEach(data::add);
+            }
+            
+            logger.info("Successfully streamed {} rows from Excel file: {} in {} ms",
+                       data.size(), fileName, (System.nanoTime() - startTime) / 1_000_000);
+            return data;
+        }
+        
+        return readExcelDataDom(fileName, sheetName);
+    }
+    
+    /**
+     * Stream Excel rows lazily with constant memory
+     * The returned stream holds the file open and must be closed, e.g. with try-with-resources
+     * @param fileName Excel file name
+     * @param sheetName Sheet name
+     * @return Stream of Maps containing row data
+     */
+    public static Stream<Map<String, String>> streamExcelData(String fileName, String sheetName) {
+        ExcelStreamReader reader = ExcelStreamReader.open(new File(TEST_DATA_PATH + fileName), sheetName);
+        Spliterator<Map<String, String>> spliterator =
+            Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL);
+        
+        logger.info("Streaming Excel data from: {} (sheet: {})", fileName, sheetName);
+        return StreamSupport.stream(spliterator, false).onClose(reader::close);
+    }
+    
+    /**
+     * Read Excel data by loading the full workbook model
+     * @param fileName Excel file name
+     * @param sheetName Sheet name
+     * @return List of Maps containing row data
+     */
+    private static List<Map<String, String>> readExcelDataDom(String fileName, String sheetName) {
+        long startTime = System.nanoTime();
         List<Map<String, String>> data = new ArrayList<>();
         
         try (FileInputStream fis = new FileInputStream(TEST_DATA_PATH + fileName);
@@ -271,7 +342,8 @@ public class TestDataManager {
                 data.add(rowData);
             }
             
-            logger.info("Successfully read {} rows from Excel file: {}", data.size(), fileName);
+            logger.info("Successfully read {} rows from Excel file: {} in {} ms",
+                       data.size(), fileName, (System.nanoTime() - startTime) / 1_000_000);
             
         } catch (IOException e) {
             logger.error("Failed to read Excel data from: {}", fileName, e);
@@ -281,6 +353,474 @@ public class TestDataManager {
         return data;
     }
     
+    /**
+     * Get records of a JSON section with values that are JSON numbers as Double and all others as String
+     * Served from the memory-mapped compiled test data when it is up to date, otherwise parsed from source
+     * @param fileName JSON file name
+     * @param section Top-level JSON field
+     * @return List of mutable record maps
+     */
+    private static List<Map<String, Object>> getTypedDataRecords(String fileName, String section) {
+        CompiledTestData compiled = getCompiledTestData();
+        List<Map<String, Object>> records = compiled != null ? compiled.getTypedDataset(fileName, section) : null;
+        if (records != null) {
+            return records;
+        }
+        
+        JsonNode sectionNode = readJsonData(fileName).get(section);
+        if (sectionNode == null) {
+            logger.error("Test data section not found: {}#{}", fileName, section);
+            throw new IllegalArgumentException("Test data section not found: " + fileName + "#" + section);
+        }
+        
+        List<Map<String, String>> textRecords = toRecords(sectionNode);
+        List<Set<String>> numbers = numberFields(sectionNode);
+        records = new ArrayList<>(textRecords.size());
+        for (int i = 0; i < textRecords.size(); i++) {
+            Map<String, Object> record = new HashMap<>();
+            for (Map.Entry<String, String> field : textRecords.get(i).entrySet()) {
+                record.put(field.getKey(), numbers.get(i).contains(field.getKey())
+                    ? (Object) Double.valueOf(field.getValue()) : field.getValue());
+            }
+            records.add(record);
+        }
+        return records;
+    }
+    
+    /**
+     * Find the record of an object-of-objects section by its key
+     * @return Record without the key field, or null if there is none with that key
+     */
+    private static Map<String, Object> findKeyedRecord(String fileName, String section, String key) {
+        for (Map<String, Object> record : getTypedDataRecords(fileName, section)) {
+            if (key.equals(record.remove(RECORD_KEY_FIELD))) {
+                return record;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Get records of a test data section
+     * Served from the memory-mapped compiled test data when it is up to date, otherwise parsed from source
+     * @param fileName Test data file name (JSON or XLSX)
+     * @param section Top-level JSON field or Excel sheet name
+     * @return List of record maps
+     */
+    public static List<Map<String, String>> getDataRecords(String fileName, String section) {
+        CompiledTestData compiled = getCompiledTestData();
+        if (compiled != null) {
+            List<Map<String, String>> records = compiled.getDataset(fileName, section);
+            if (records != null) {
+                logger.debug("Retrieved {} records for {}#{} from compiled test data", records.size(), fileName, section);
+                return records;
+            }
+        }
+        
+        if (isExcelFile(fileName)) {
+            return readExcelData(fileName, section, ExcelReadMode.STREAMING);
+        }
+        
+        JsonNode sectionNode = readJsonData(fileName).get(section);
+        if (sectionNode == null) {
+            logger.error("Test data section not found: {}#{}", fileName, section);
+            throw new IllegalArgumentException("Test data section not found: " + fileName + "#" + section);
+        }
+        
+        List<Map<String, String>> records = toRecords(sectionNode);
+        logger.info("Retrieved {} records for {}#{}", records.size(), fileName, section);
+        return records;
+    }
+    
+    /**
+     * Stream records of a test data section lazily
+     * JSON arrays are read element by element and Excel sheets row by row, so large sources are never
+     * fully materialised. The returned stream may hold the file open and must be closed.
+     * @param fileName Test data file name (JSON or XLSX)
+     * @param section Top-level JSON field or Excel sheet name
+     * @return Stream of record maps
+     */
+    public static Stream<Map<String, String>> streamDataRecords(String fileName, String section) {
+        CompiledTestData compiled = getCompiledTestData();
+        if (compiled != null) {
+            List<Map<String, String>> records = compiled.getDataset(fileName, section);
+            if (records != null) {
+                return records.stream();
+            }
+        }
+        
+        if (isExcelFile(fileName)) {
+            return streamExcelData(fileName, section);
+        }
+        
+        return streamJsonSection(fileName, section);
+    }
+    
+    /**
+     * Stream a JSON section with the Jackson streaming parser
+     * Arrays are streamed element by element and objects whose first value is an object (keyed records
+     * such as users.json "users") entry by entry; other sections are read as a single tree. A keyed
+     * section that turns out to hold a non-object value fails the stream, getDataRecords reads it whole.
+     * @param fileName JSON file name
+     * @param section Top-level field name
+     * @return Stream of record maps
+     */
+    private static Stream<Map<String, String>> streamJsonSection(String fileName, String section) {
+        JsonParser parser = null;
+        try {
+            parser = objectMapper.createParser(new File(TEST_DATA_PATH + fileName));
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Test data root must be a JSON object: " + fileName);
+            }
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                
+                if (!section.equals(fieldName)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                
+                if (valueToken == JsonToken.START_ARRAY) {
+                    logger.info("Streaming JSON data from: {}#{}", fileName, section);
+                    return streamRecords(new JsonArrayRecordIterator(parser, fileName), parser);
+                }
+                
+                if (valueToken == JsonToken.START_OBJECT && parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String firstKey = parser.getCurrentName();
+                    if (parser.nextToken() == JsonToken.START_OBJECT) {
+                        logger.info("Streaming JSON data from: {}#{}", fileName, section);
+                        return streamRecords(new JsonObjectRecordIterator(parser, fileName, section, firstKey), parser);
+                    }
+                    
+                    // A plain object is a single record, read the rest of it
+                    ObjectNode node = objectMapper.createObjectNode();
+                    node.set(firstKey, parser.readValueAsTree());
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String key = parser.getCurrentName();
+                        parser.nextToken();
+                        node.set(key, parser.readValueAsTree());
+                    }
+                    parser.close();
+                    return toRecords(node).stream();
+                }
+                
+                List<Map<String, String>> records = valueToken == JsonToken.END_OBJECT
+                    ? toRecords(objectMapper.createObjectNode())
+                    : toRecords(parser.readValueAsTree());
+                parser.close();
+                return records.stream();
+            }
+            
+            throw new IllegalArgumentException("Test data section not found: " + fileName + "#" + section);
+        } catch (IOException e) {
+            closeQuietly(parser);
+            logger.error("Failed to stream JSON data from: {}#{}", fileName, section, e);
+            throw new RuntimeException("Could not stream JSON data: " + fileName, e);
+        } catch (RuntimeException e) {
+            closeQuietly(parser);
+            throw e;
+        }
+    }
+    
+    /**
+     * Close a JSON parser, logging instead of throwing
+     */
+    private static void closeQuietly(JsonParser parser) {
+        if (parser != null) {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close JSON parser", e);
+            }
+        }
+    }
+    
+    /**
+     * Stream the records of an iterator, closing the parser with the stream
+     */
+    private static Stream<Map<String, String>> streamRecords(Iterator<Map<String, String>> records, JsonParser parser) {
+        Spliterator<Map<String, String>> spliterator = Spliterators.spliteratorUnknownSize(
+            records, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> closeQuietly(parser));
+    }
+    
+    /**
+     * Iterator over records read one at a time from a JSON section the parser is positioned in
+     */
+    private abstract static class JsonRecordIterator implements Iterator<Map<String, String>> {
+        protected final JsonParser parser;
+        protected final String fileName;
+        private Map<String, String> nextRecord;
+        private boolean finished = false;
+        
+        JsonRecordIterator(JsonParser parser, String fileName) {
+            this.parser = parser;
+            this.fileName = fileName;
+        }
+        
+        /**
+         * Read the next record of the section
+         * @return Record, or null at the end of the section
+         */
+        protected abstract Map<String, String> readRecord() throws IOException;
+        
+        @Override
+        public boolean hasNext() {
+            if (nextRecord == null && !finished) {
+                try {
+                    nextRecord = readRecord();
+                    if (nextRecord == null) {
+                        finished = true;
+                        closeQuietly(parser);
+                    }
+                } catch (RuntimeException e) {
+                    finished = true;
+                    closeQuietly(parser);
+                    throw e;
+                } catch (IOException e) {
+                    finished = true;
+                    closeQuietly(parser);
+                    logger.error("Failed to read JSON record from: {}", fileName, e);
+                    throw new RuntimeException("Could not read JSON record: " + fileName, e);
+                }
+            }
+            return nextRecord != null;
+        }
+        
+        @Override
+        public Map<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more records in: " + fileName);
+            }
+            Map<String, String> record = nextRecord;
+            nextRecord = null;
+            return record;
+        }
+    }
+    
+    /**
+     * Iterator over the elements of a JSON array that the parser is positioned in
+     */
+    private static class JsonArrayRecordIterator extends JsonRecordIterator {
+        
+        JsonArrayRecordIterator(JsonParser parser, String fileName) {
+            super(parser, fileName);
+        }
+        
+        @Override
+        protected Map<String, String> readRecord() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            return toArrayElementRecord(parser.readValueAsTree());
+        }
+    }
+    
+    /**
+     * Iterator over the entries of a JSON object of objects, each a record with its key under "_key"
+     * Starts with the parser on the first entry's value
+     */
+    private static class JsonObjectRecordIterator extends JsonRecordIterator {
+        private final String section;
+        private String pendingKey;
+        
+        JsonObjectRecordIterator(JsonParser parser, String fileName, String section, String firstKey) {
+            super(parser, fileName);
+            this.section = section;
+            this.pendingKey = firstKey;
+        }
+        
+        @Override
+        protected Map<String, String> readRecord() throws IOException {
+            String key = pendingKey;
+            pendingKey = null;
+            if (key == null) {
+                JsonToken token = parser.nextToken();
+                if (token != JsonToken.FIELD_NAME) {
+                    return null;
+                }
+                key = parser.getCurrentName();
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IllegalStateException("Test data section mixes records and plain values, read it with "
+                        + "getDataRecords: " + fileName + "#" + section);
+                }
+            }
+            
+            Map<String, String> record = new LinkedHashMap<>();
+            record.put(RECORD_KEY_FIELD, key);
+            record.putAll(toRecord(parser.readValueAsTree()));
+            return record;
+        }
+    }
+    
+    /**
+     * Get compiled test data if enabled, present and not stale
+     * @return CompiledTestData or null to fall back to source parsers
+     */
+    private static CompiledTestData getCompiledTestData() {
+        if (!compiledTestDataResolved) {
+            synchronized (TestDataManager.class) {
+                if (!compiledTestDataResolved) {
+                    compiledTestData = loadCompiledTestData();
+                    compiledTestDataResolved = true;
+                }
+            }
+        }
+        return compiledTestData;
+    }
+    
+    /**
+     * Map the compiled test data file
+     * @return CompiledTestData or null if unavailable
+     */
+    private static CompiledTestData loadCompiledTestData() {
+        ConfigManager config = ConfigManager.getInstance();
+        if (!config.isCompiledTestDataEnabled()) {
+            return null;
+        }
+        
+        Path compiledFile = Paths.get(config.getCompiledTestDataFile());
+        if (!compiledFile.toFile().exists()) {
+            logger.info("Compiled test data not found at {}, using source parsers", compiledFile);
+            return null;
+        }
+        
+        try {
+            CompiledTestData compiled = CompiledTestData.open(compiledFile);
+            if (compiled.isStale(Paths.get(TEST_DATA_PATH))) {
+                logger.warn("Compiled test data {} is stale, using source parsers", compiledFile);
+                return null;
+            }
+            return compiled;
+        } catch (RuntimeException e) {
+            logger.warn("Compiled test data {} is unusable, using source parsers", compiledFile, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Flatten a JSON section into records
+     * Arrays yield one record per element, objects of objects yield one record per entry with its key
+     * under "_key", and any other object yields a single record. Nested values are kept as JSON text.
+     * @param section JSON section node
+     * @return List of record maps
+     */
+    static List<Map<String, String>> toRecords(JsonNode section) {
+        List<Map<String, String>> records = new ArrayList<>();
+        
+        if (section.isArray()) {
+            for (JsonNode element : section) {
+                records.add(toArrayElementRecord(element));
+            }
+        } else if (section.isObject() && section.size() > 0 && allObjects(section)) {
+            section.fields().forEachRemaining(entry -> {
+                Map<String, String> record = new LinkedHashMap<>();
+                record.put(RECORD_KEY_FIELD, entry.getKey());
+                record.putAll(toRecord(entry.getValue()));
+                records.add(record);
+            });
+        } else if (section.isObject()) {
+            records.add(toRecord(section));
+        } else {
+            Map<String, String> record = new LinkedHashMap<>();
+            record.put("value", toText(section));
+            records.add(record);
+        }
+        
+        return records;
+    }
+    
+    /**
+     * Get the fields of each record of toRecords(section) whose values are JSON numbers
+     * @param section JSON section node
+     * @return One set of field names per record, in record order
+     */
+    static List<Set<String>> numberFields(JsonNode section) {
+        List<Set<String>> numbers = new ArrayList<>();
+        
+        if (section.isArray()) {
+            for (JsonNode element : section) {
+                numbers.add(element.isObject() ? objectNumberFields(element) : scalarNumberField(element));
+            }
+        } else if (section.isObject() && section.size() > 0 && allObjects(section)) {
+            for (JsonNode entry : section) {
+                numbers.add(objectNumberFields(entry));
+            }
+        } else if (section.isObject()) {
+            numbers.add(objectNumberFields(section));
+        } else {
+            numbers.add(scalarNumberField(section));
+        }
+        
+        return numbers;
+    }
+    
+    private static Set<String> objectNumberFields(JsonNode node) {
+        Set<String> fields = new HashSet<>();
+        node.fields().forEachRemaining(entry -> {
+            if (entry.getValue().isNumber()) {
+                fields.add(entry.getKey());
+            }
+        });
+        return fields;
+    }
+    
+    private static Set<String> scalarNumberField(JsonNode node) {
+        return node.isNumber() ? Collections.singleton("value") : Collections.emptySet();
+    }
+    
+    /**
+     * Flatten a JSON array element into a record, wrapping scalars under "value"
+     */
+    private static Map<String, String> toArrayElementRecord(JsonNode element) {
+        if (element.isObject()) {
+            return toRecord(element);
+        }
+        Map<String, String> record = new LinkedHashMap<>();
+        record.put("value", toText(element));
+        return record;
+    }
+    
+    /**
+     * Flatten a JSON object into a record
+     */
+    private static Map<String, String> toRecord(JsonNode node) {
+        Map<String, String> record = new LinkedHashMap<>();
+        node.fields().forEachRemaining(entry -> record.put(entry.getKey(), toText(entry.getValue())));
+        return record;
+    }
+    
+    /**
+     * Get text for a value node, or JSON text for containers
+     */
+    private static String toText(JsonNode node) {
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+    
+    /**
+     * Check whether every field of an object is itself an object
+     */
+    private static boolean allObjects(JsonNode node) {
+        for (JsonNode child : node) {
+            if (!child.isObject()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Check whether a test data file is an Excel workbook
+     * @param fileName File name
+     * @return true for .xlsx files
+     */
+    static boolean isExcelFile(String fileName) {
+        return fileName.toLowerCase().endsWith(".xlsx");
+    }
+    
     /**
      * Get all user types from JSON
      * @return List of user types
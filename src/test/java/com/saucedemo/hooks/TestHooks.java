@@ -1,10 +1,19 @@
 package com.saucedemo.hooks;
 
 import com.saucedemo.config.ConfigManager;
+import com.saucedemo.execution.NetworkArchive;
+import com.saucedemo.execution.RunGuard;
 import com.saucedemo.listeners.ExtentReportListener;
 import com.saucedemo.listeners.ScreenshotListener;
+import com.saucedemo.pages.LoginPage;
+import com.saucedemo.utils.BrowserProcessSupervisor;
 import com.saucedemo.utils.DriverManager;
+import com.saucedemo.utils.GridClientFactory;
+import com.saucedemo.utils.LocalAppServer;
+import com.saucedemo.utils.NavigationTimer;
+import com.saucedemo.utils.ResourceBlocker;
 import com.saucedemo.utils.ScreenshotUtils;
+import com.saucedemo.utils.TestDataLeaseManager;
 import io.cucumber.java.After;
 import io.cucumber.java.AfterAll;
 import io.cucumber.java.Before;
@@ -12,6 +21,7 @@ import io.cucumber.java.BeforeAll;
 import io.cucumber.java.Scenario;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
 
 /**
  * Cucumber Hooks for test setup and teardown
@@ -23,12 +33,23 @@ public class TestHooks {
     @BeforeAll
     public static void globalSetup() {
         logger.info("========== STARTING TEST EXECUTION ==========");
+        
+        // Serve the local replica before anything reads app.url
+        if (LocalAppServer.isEnabled()) {
+            LocalAppServer.start();
+        }
+        
         logger.info("Environment: {}", config.getEnvironment());
         logger.info("Browser: {}", config.getBrowser());
         logger.info("Application URL: {}", config.getAppUrl());
         logger.info("Headless Mode: {}", config.isHeadless());
         logger.info("Grid Enabled: {}", config.isGridEnabled());
         
+        // Kill driver and browser processes left behind by killed runs
+        if (BrowserProcessSupervisor.isEnabled()) {
+            BrowserProcessSupervisor.getInstance();
+        }
+        
         // Create necessary directories
         ScreenshotUtils.createScreenshotDirectory();
         
@@ -44,8 +65,14 @@ public class TestHooks {
         
         try {
             // Initialize WebDriver
-            String browser = System.getProperty("browser", config.getBrowser());
-            DriverManager.initializeDriver(browser);
+            String browser = DriverManager.getBrowserForTags(scenario.getSourceTagNames(),
+                System.getProperty("browser", config.getBrowser()));
+            DriverManager.initializeDriver(browser,
+                DriverManager.getPageLoadStrategyForTags(scenario.getSourceTagNames()));
+            ResourceBlocker.apply(DriverManager.getDriver(), scenario.getSourceTagNames());
+            if (NetworkArchive.isEnabled()) {
+                NetworkArchive.getInstance().attach(DriverManager.getDriver());
+            }
             
             logger.info("WebDriver initialized successfully for scenario: {}", scenario.getName());
             
@@ -57,6 +84,7 @@ public class TestHooks {
         } catch (Exception e) {
             logger.error("Failed to initialize WebDriver for scenario: {}", scenario.getName(), e);
             ExtentReportListener.logFail("Failed to initialize WebDriver: " + e.getMessage());
+            RunGuard.recordSetupFailure();
             throw new RuntimeException("WebDriver initialization failed", e);
         }
     }
@@ -67,7 +95,7 @@ public class TestHooks {
         
         try {
             // Navigate to login page
-            DriverManager.getDriver().get(config.getAppUrl());
+            openLoginPage();
             logger.info("Navigated to application URL: {}", config.getAppUrl());
             
             ExtentReportListener.logInfo("Navigated to login page");
@@ -75,6 +103,7 @@ public class TestHooks {
         } catch (Exception e) {
             logger.error("Failed to navigate to login page for scenario: {}", scenario.getName(), e);
             ExtentReportListener.logFail("Failed to navigate to login page: " + e.getMessage());
+            RunGuard.recordSetupFailure();
             throw new RuntimeException("Navigation to login page failed", e);
         }
     }
@@ -85,7 +114,7 @@ public class TestHooks {
         
         try {
             // Login with standard user for inventory tests
-            DriverManager.getDriver().get(config.getAppUrl());
+            openLoginPage();
             
             // Perform quick login for inventory tests
             performQuickLogin();
@@ -96,6 +125,7 @@ public class TestHooks {
         } catch (Exception e) {
             logger.error("Failed to setup for inventory test scenario: {}", scenario.getName(), e);
             ExtentReportListener.logFail("Failed to setup for inventory tests: " + e.getMessage());
+            RunGuard.recordSetupFailure();
             throw new RuntimeException("Inventory test setup failed", e);
         }
     }
@@ -106,7 +136,7 @@ public class TestHooks {
         
         try {
             // Login with standard user for cart tests
-            DriverManager.getDriver().get(config.getAppUrl());
+            openLoginPage();
             
             // Perform quick login for cart tests
             performQuickLogin();
@@ -117,6 +147,7 @@ public class TestHooks {
         } catch (Exception e) {
             logger.error("Failed to setup for cart test scenario: {}", scenario.getName(), e);
             ExtentReportListener.logFail("Failed to setup for cart tests: " + e.getMessage());
+            RunGuard.recordSetupFailure();
             throw new RuntimeException("Cart test setup failed", e);
         }
     }
@@ -127,7 +158,7 @@ public class TestHooks {
         
         try {
             // Login with standard user for checkout tests
-            DriverManager.getDriver().get(config.getAppUrl());
+            openLoginPage();
             
             // Perform quick login for checkout tests
             performQuickLogin();
@@ -138,6 +169,7 @@ public class TestHooks {
         } catch (Exception e) {
             logger.error("Failed to setup for checkout test scenario: {}", scenario.getName(), e);
             ExtentReportListener.logFail("Failed to setup for checkout tests: " + e.getMessage());
+            RunGuard.recordSetupFailure();
             throw new RuntimeException("Checkout test setup failed", e);
         }
     }
@@ -200,9 +232,18 @@ public class TestHooks {
         } catch (Exception e) {
             logger.error("Error during scenario teardown: {}", scenario.getName(), e);
         } finally {
-            // Always quit the driver
-            DriverManager.quitDriver();
-            logger.info("WebDriver quit successfully for scenario: {}", scenario.getName());
+            if (DriverManager.isDriverInitialized()) {
+                NavigationTimer.settle(DriverManager.getDriver());
+            }
+            ResourceBlocker.scenarioFinished(scenario.getName());
+            
+            // Always quit the driver, or reset it when the worker thread keeps its browser warm
+            DriverManager.releaseDriver();
+            logger.info("WebDriver released for scenario: {}", scenario.getName());
+            
+            // Return leased test data to the pool
+            TestDataLeaseManager.releaseAll();
+            RunGuard.scenarioFinished();
         }
     }
     
@@ -232,6 +273,18 @@ public class TestHooks {
             ExtentReportListener.flushReports();
             logger.info("ExtentReports flushed successfully");
             
+            ResourceBlocker.logSummary();
+            GridClientFactory.logSummary();
+            NavigationTimer.logSummary();
+            if (NetworkArchive.isEnabled()) {
+                NetworkArchive.getInstance().save();
+                NetworkArchive.getInstance().logSummary();
+            }
+            
+            if (LocalAppServer.isEnabled()) {
+                LocalAppServer.stop();
+            }
+            
             // Additional cleanup if needed
             logger.info("Global teardown completed successfully");
             
@@ -241,14 +294,26 @@ public class TestHooks {
     }
     
     /**
-     * Perform quick login with standard user
+     * Open the application and wait until the login page is ready
+     * With an EAGER or NONE page load strategy the navigation returns early, the login page decides when it is usable
+     */
+    private void openLoginPage() {
+        WebDriver driver = DriverManager.getDriver();
+        NavigationTimer.navigate(driver, config.getAppUrl(), new LoginPage(driver)::waitForPageToLoad);
+    }
+    
+    /**
+     * Perform quick login with a user account leased exclusively for this thread
      */
     private void performQuickLogin() {
         try {
+            java.util.Map<String, String> user = TestDataLeaseManager.lease(TestDataLeaseManager.USER_POOL);
+            logger.debug("Quick login with leased user: {}", user.get("username"));
+            
             DriverManager.getDriver().findElement(org.openqa.selenium.By.id("user-name"))
-                .sendKeys(config.getStandardUser());
+                .sendKeys(user.get("username"));
             DriverManager.getDriver().findElement(org.openqa.selenium.By.id("password"))
-                .sendKeys(config.getPassword());
+                .sendKeys(user.get("password"));
             DriverManager.getDriver().findElement(org.openqa.selenium.By.id("login-button"))
                 .click();
             
@@ -263,6 +328,7 @@ public class TestHooks {
             
         } catch (Exception e) {
             logger.error("Failed to perform quick login", e);
+            RunGuard.recordSetupFailure();
             throw new RuntimeException("Quick login failed", e);
         }
     }
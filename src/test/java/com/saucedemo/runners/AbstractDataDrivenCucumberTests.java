@@ -0,0 +1,150 @@
+package com.saucedemo.runners;
+
+import com.saucedemo.execution.RunGuard;
+import com.saucedemo.execution.RunnerPlugins;
+import com.saucedemo.execution.ScenarioId;
+import com.saucedemo.execution.ScenarioSharding;
+import com.saucedemo.utils.ScenarioDataContext;
+import com.saucedemo.utils.TestDataManager;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import io.cucumber.testng.TestNGCucumberRunner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Base TestNG runner that feeds scenarios from TestDataManager sources
+ * A scenario tagged @data:<file>:<section> runs once per record of that section; records are pulled
+ * lazily from a streaming supplier while the suite runs. Other scenarios run once without data.
+ * With shard.total greater than 1 only this shard's scenarios run, like in AbstractParallelCucumberTests.
+ */
+public abstract class AbstractDataDrivenCucumberTests {
+    private static final Logger logger = LogManager.getLogger(AbstractDataDrivenCucumberTests.class);
+    
+    private TestNGCucumberRunner testNGCucumberRunner;
+    
+    @BeforeClass(alwaysRun = true)
+    public void setUpClass(ITestContext context) {
+        testNGCucumberRunner = RunnerPlugins.createRunner(this.getClass(), context.getCurrentXmlTest()::getParameter);
+    }
+    
+    @Test(groups = "cucumber", description = "Runs data-driven Cucumber Scenarios", dataProvider = "dataDrivenScenarios")
+    public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper,
+                            Map<String, String> dataRow) throws Throwable {
+        RunGuard.checkNotAborted();
+        if (dataRow != null) {
+            ScenarioDataContext.setDataRow(dataRow);
+            logger.info("Running '{}' with data record: {}", pickleWrapper.getPickle().getName(), dataRow);
+        }
+        
+        try {
+            testNGCucumberRunner.runScenario(pickleWrapper.getPickle());
+        } finally {
+            ScenarioDataContext.clear();
+        }
+    }
+    
+    @DataProvider(name = "dataDrivenScenarios")
+    public Iterator<Object[]> dataDrivenScenarios() {
+        if (testNGCucumberRunner == null) {
+            return Collections.emptyIterator();
+        }
+        List<Object[]> scenarios = Arrays.asList(testNGCucumberRunner.provideScenarios());
+        if (ScenarioSharding.isEnabled()) {
+            // Sharded per scenario, all data records of a scenario run on the same shard
+            scenarios = ScenarioSharding.select(scenarios, scenario -> {
+                Pickle pickle = ((PickleWrapper) scenario[0]).getPickle();
+                return ScenarioId.of(pickle.getUri(), pickle.getLine());
+            });
+        }
+        return new DataDrivenScenarioIterator(scenarios.iterator());
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void tearDownClass() {
+        if (testNGCucumberRunner == null) {
+            return;
+        }
+        testNGCucumberRunner.finish();
+    }
+    
+    /**
+     * Expands each data-driven scenario into one invocation per record, pulling records on demand
+     */
+    private static class DataDrivenScenarioIterator implements Iterator<Object[]> {
+        private final Iterator<Object[]> scenarios;
+        private Object[] currentScenario;
+        private Stream<Map<String, String>> currentStream;
+        private Iterator<Map<String, String>> currentRecords;
+        private Object[] next;
+        
+        DataDrivenScenarioIterator(Iterator<Object[]> scenarios) {
+            this.scenarios = scenarios;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (currentRecords != null && currentRecords.hasNext()) {
+                    next = new Object[] {currentScenario[0], currentScenario[1], currentRecords.next()};
+                    break;
+                }
+                closeCurrentStream();
+                
+                if (!scenarios.hasNext()) {
+                    return false;
+                }
+                
+                currentScenario = scenarios.next();
+                PickleWrapper pickleWrapper = (PickleWrapper) currentScenario[0];
+                String[] dataSource = ScenarioDataContext.findDataSource(pickleWrapper.getPickle().getTags());
+                
+                if (dataSource == null) {
+                    next = new Object[] {currentScenario[0], currentScenario[1], null};
+                } else {
+                    logger.info("Streaming data for '{}' from {}#{}",
+                               pickleWrapper.getPickle().getName(), dataSource[0], dataSource[1]);
+                    currentStream = TestDataManager.streamDataRecords(dataSource[0], dataSource[1]);
+                    currentRecords = currentStream.iterator();
+                    if (!currentRecords.hasNext()) {
+                        logger.warn("Data source {}#{} has no records, scenario '{}' will not run",
+                                   dataSource[0], dataSource[1], pickleWrapper.getPickle().getName());
+                    }
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object[] invocation = next;
+            next = null;
+            return invocation;
+        }
+        
+        private void closeCurrentStream() {
+            if (currentStream != null) {
+                currentStream.close();
+                currentStream = null;
+            }
+            currentRecords = null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,388 @@
+package com.saucedemo.runners;
+
+import com.saucedemo.config.ConfigManager;
+import com.saucedemo.execution.AdaptiveConcurrencyController;
+import com.saucedemo.execution.CachedScenarioReport;
+import com.saucedemo.execution.FailureClass;
+import com.saucedemo.execution.FlakinessTracker;
+import com.saucedemo.execution.ImpactSelector;
+import com.saucedemo.execution.LongestFirstScheduler;
+import com.saucedemo.execution.ResultCache;
+import com.saucedemo.execution.RunGuard;
+import com.saucedemo.execution.RunnerPlugins;
+import com.saucedemo.execution.ScenarioDurationHistory;
+import com.saucedemo.execution.ScenarioId;
+import com.saucedemo.execution.ScenarioRetryEngine;
+import com.saucedemo.execution.ScenarioSharding;
+import io.cucumber.testng.CucumberPropertiesProvider;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import io.cucumber.testng.TestNGCucumberRunner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestContext;
+import org.testng.Reporter;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Base TestNG runner that executes individual scenarios concurrently
+ * Each scenario is one data provider invocation on its own pool thread, so the ThreadLocal WebDriver
+ * in DriverManager and the per-scenario hooks work unchanged. The pool size is the suite's
+ * data-provider-thread-count; each runner runs at most thread.count scenarios at once, which a generated
+ * suite may set per <test> block as a TestNG parameter.
+ * With scenario.scheduling=longest_first the queue is ordered by historical duration, slowest first,
+ * and idle pool threads pull the next scenario as they free up.
+ * With shard.total greater than 1 only this shard's scenarios run, and a cucumber JSON report is
+ * also written to the shard output directory for ShardReportMerger.
+ * With concurrency.adaptive the pool is sized to concurrency.max and AdaptiveConcurrencyController
+ * decides how many scenarios run at once.
+ * With test.selection=impacted only scenarios affected by changes since impact.base.ref run.
+ * With result.cache.enabled a scenario that passed before with identical inputs is reported from the
+ * cache instead of being executed.
+ * Scenarios tagged with one of gate.tags run first; the rest wait for them and are skipped or the
+ * run is aborted if a gate fails, depending on gate.failure.policy.
+ * A scenario failing with a retryable failure (see ScenarioRetryEngine) is reported as skipped and
+ * retried after all other scenarios of the runner finished, so retries never hold up the main queue.
+ * With flakiness.quarantine, scenarios FlakinessTracker considers flaky are dispatched after all others,
+ * run at most flakiness.quarantine.threads at a time and report failures as skipped.
+ * A subclass may serve the scenarios of several runner classes from its one queue by overriding runnerClasses().
+ */
+public abstract class AbstractParallelCucumberTests {
+    private static final Logger logger = LogManager.getLogger(AbstractParallelCucumberTests.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final long DEFAULT_SCENARIO_MILLIS = 10000;
+    
+    private final ScenarioDurationHistory history = ScenarioDurationHistory.getInstance();
+    private final ResultCache resultCache = ResultCache.isEnabled() ? ResultCache.getInstance() : null;
+    private final ScenarioRetryEngine retryEngine = ScenarioRetryEngine.getInstance();
+    private final Queue<Object[]> deferredRetries = new ConcurrentLinkedQueue<>();
+    private final FlakinessTracker flakinessTracker = FlakinessTracker.getInstance();
+    private final Semaphore quarantineSlots = new Semaphore(config.getFlakinessQuarantineThreads());
+    private Set<String> quarantined = Collections.emptySet();
+    private final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong lastEnd = new AtomicLong();
+    private final List<CucumberRunner> runners = new ArrayList<>();
+    private final Map<Pickle, CucumberRunner> runnerOf = new ConcurrentHashMap<>();
+    private int threadCount;
+    private Semaphore scenarioSlots;
+    private long predictedMakespan = -1;
+    private CountDownLatch gatesFinished = new CountDownLatch(0);
+    private volatile boolean gateFailed;
+    
+    @BeforeClass(alwaysRun = true)
+    public void setUpClass(ITestContext context) {
+        for (Class<?> runnerClass : runnerClasses()) {
+            runners.add(new CucumberRunner(runnerClass, context));
+        }
+        
+        String threadCountParameter = context.getCurrentXmlTest().getParameter("thread.count");
+        if (AdaptiveConcurrencyController.isEnabled()) {
+            // Threads are sized for the upper bound, the controller decides how many run at once
+            threadCount = AdaptiveConcurrencyController.getThreadCount();
+        } else {
+            threadCount = threadCountParameter != null ? Integer.parseInt(threadCountParameter) : config.getThreadCount();
+        }
+        scenarioSlots = new Semaphore(threadCount);
+        
+        int poolSize = context.getCurrentXmlTest().getSuite().getDataProviderThreadCount();
+        if (poolSize < threadCount) {
+            logger.warn("Suite data-provider-thread-count {} is below the {} threads of {}, raise it in the suite XML",
+                       poolSize, threadCount, getClass().getSimpleName());
+        }
+        logger.info("Running scenarios of {} in parallel on {} threads", getClass().getSimpleName(), Math.min(poolSize, threadCount));
+    }
+    
+    /**
+     * Runner classes whose @CucumberOptions select the scenarios of this runner
+     * @return This class, unless a subclass serves the scenarios of other runner classes
+     */
+    protected List<Class<?>> runnerClasses() {
+        return Collections.singletonList(getClass());
+    }
+    
+    @DataProvider(parallel = true)
+    public Object[][] scenarios() {
+        if (runners.isEmpty()) {
+            return new Object[0][0];
+        }
+        
+        List<Object[]> scenarios = new ArrayList<>();
+        for (CucumberRunner runner : runners) {
+            for (Object[] scenario : runner.testNGCucumberRunner.provideScenarios()) {
+                runnerOf.put(pickle(scenario), runner);
+                scenarios.add(scenario);
+            }
+        }
+        long unknownMillis = history.getAverageMillis(DEFAULT_SCENARIO_MILLIS);
+        ToLongFunction<Object[]> predicted = scenario -> {
+            long millis = history.getPredictedMillis(scenarioId(scenario));
+            return millis >= 0 ? millis : unknownMillis;
+        };
+        
+        if (ImpactSelector.isEnabled()) {
+            scenarios = ImpactSelector.select(scenarios, AbstractParallelCucumberTests::scenarioId);
+        }
+        if ("longest_first".equalsIgnoreCase(config.getScenarioScheduling())) {
+            scenarios = LongestFirstScheduler.order(scenarios, predicted);
+        }
+        if (ScenarioSharding.isEnabled()) {
+            scenarios = ScenarioSharding.select(scenarios, AbstractParallelCucumberTests::scenarioId);
+        }
+        
+        // Quarantined scenarios are dispatched last and never act as gates
+        List<Object[]> quarantine = new ArrayList<>();
+        if (FlakinessTracker.isQuarantineEnabled()) {
+            Map<Boolean, List<Object[]>> byQuarantine = scenarios.stream()
+                .collect(Collectors.partitioningBy(scenario -> flakinessTracker.isQuarantined(scenarioId(scenario))));
+            quarantine = byQuarantine.get(true);
+            scenarios = byQuarantine.get(false);
+            quarantined = quarantine.stream().map(AbstractParallelCucumberTests::scenarioId).collect(Collectors.toSet());
+            if (!quarantine.isEmpty()) {
+                logger.info("{} flaky scenarios run in the quarantine lane: {}", quarantine.size(), quarantined);
+            }
+        }
+        
+        // Gate scenarios are dispatched first, the others wait for them in runScenario
+        Map<Boolean, List<Object[]>> byGate = scenarios.stream()
+            .collect(Collectors.partitioningBy(scenario -> RunGuard.isGate(pickle(scenario).getTags())));
+        scenarios = new ArrayList<>(byGate.get(true));
+        scenarios.addAll(byGate.get(false));
+        scenarios.addAll(quarantine);
+        gatesFinished = new CountDownLatch(byGate.get(true).size());
+        if (!byGate.get(true).isEmpty()) {
+            logger.info("{} gate scenarios run before the other {}", byGate.get(true).size(), byGate.get(false).size());
+        }
+        
+        List<Long> durations = scenarios.stream().map(predicted::applyAsLong).collect(Collectors.toList());
+        predictedMakespan = LongestFirstScheduler.predictMakespan(durations, threadCount);
+        logger.info("Scheduled {} scenarios ({}), predicted makespan {} ms",
+                   scenarios.size(), config.getScenarioScheduling(), predictedMakespan);
+        return scenarios.toArray(new Object[0][]);
+    }
+    
+    @Test(groups = {"cucumber", ScenarioRetryEngine.SELF_RETRYING_GROUP}, description = "Runs Cucumber Scenarios",
+          dataProvider = "scenarios")
+    public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) throws InterruptedException {
+        Pickle pickle = pickleWrapper.getPickle();
+        boolean quarantine = quarantined.contains(scenarioId(pickle));
+        boolean gate = !quarantine && RunGuard.isGate(pickle.getTags());
+        
+        try {
+            String cachedHash = resultCache != null ? resultCache.lookup(scenarioId(pickle)) : null;
+            if (cachedHash != null) {
+                Reporter.getCurrentTestResult().setAttribute(ResultCache.CACHED_ATTRIBUTE, cachedHash);
+                CachedScenarioReport cachedScenarioReport = runnerOf.get(pickle).cachedScenarioReport;
+                cachedScenarioReport.add(pickle, featureWrapper.toString().replace("\"", ""), cachedHash);
+                logger.info("Scenario '{}' passed before with identical inputs, reusing cached result", pickle.getName());
+                return;
+            }
+            
+            if (!gate) {
+                gatesFinished.await();
+                if (gateFailed) {
+                    throw new SkipException("Skipped because a gate scenario failed");
+                }
+            }
+            RunGuard.checkNotAborted();
+            if (quarantine) {
+                executeQuarantined(pickle);
+            } else {
+                execute(pickle);
+            }
+        } catch (RuntimeException | Error e) {
+            // Gates are not retried, the rest of the run is waiting for their verdict
+            if (gate) {
+                if (!(e instanceof SkipException) && RunGuard.onGateFailed(pickle.getName())) {
+                    gateFailed = true;
+                }
+            } else if (retryEngine.shouldRetry(pickle.getName(), e, 0)) {
+                Reporter.getCurrentTestResult().setAttribute(ScenarioRetryEngine.RETRY_DEFERRED_ATTRIBUTE,
+                    FailureClass.of(e).name());
+                deferredRetries.add(new Object[] {pickleWrapper, featureWrapper});
+                throw new SkipException("Failed with " + FailureClass.of(e) + ", retry deferred to the end of the run: "
+                    + e.getMessage(), e);
+            }
+            throw e;
+        } finally {
+            if (gate) {
+                gatesFinished.countDown();
+            }
+        }
+    }
+    
+    @Test(groups = {"cucumber", ScenarioRetryEngine.SELF_RETRYING_GROUP},
+          description = "Retries Cucumber Scenarios that failed with a retryable failure",
+          dataProvider = "deferredRetries", dependsOnMethods = "runScenario", alwaysRun = true)
+    public void retryScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) throws InterruptedException {
+        Pickle pickle = pickleWrapper.getPickle();
+        for (int retries = 1; ; retries++) {
+            RunGuard.checkNotAborted();
+            retryEngine.prepareRetry();
+            try {
+                execute(pickle);
+                logger.info("Scenario '{}' passed on retry {}", pickle.getName(), retries);
+                return;
+            } catch (RuntimeException | Error e) {
+                if (!retryEngine.shouldRetry(pickle.getName(), e, retries)) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    @DataProvider(parallel = true)
+    public Object[][] deferredRetries() {
+        if (!deferredRetries.isEmpty()) {
+            logger.info("Retrying {} scenarios of {}", deferredRetries.size(), getClass().getSimpleName());
+        }
+        return deferredRetries.toArray(new Object[0][]);
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void tearDownClass() {
+        if (runners.isEmpty()) {
+            return;
+        }
+        for (CucumberRunner runner : runners) {
+            runner.testNGCucumberRunner.finish();
+            if (runner.cachedScenarioReport != null) {
+                runner.cachedScenarioReport.writeCucumberJson();
+            }
+        }
+        
+        if (lastEnd.get() > 0) {
+            long actualMakespan = lastEnd.get() - firstStart.get();
+            logger.info("{} makespan: predicted {} ms, actual {} ms",
+                       getClass().getSimpleName(), predictedMakespan, actualMakespan);
+            history.save();
+        }
+        if (resultCache != null) {
+            resultCache.save();
+        }
+        retryEngine.logSummary();
+        if (AdaptiveConcurrencyController.isEnabled()) {
+            AdaptiveConcurrencyController.getInstance().logSummary();
+        }
+    }
+    
+    /**
+     * Run one attempt of a scenario in one of the runner's thread.count slots, recording its duration and cache entry
+     */
+    private void execute(Pickle pickle) throws InterruptedException {
+        scenarioSlots.acquire();
+        try {
+            executeInSlot(pickle);
+        } finally {
+            scenarioSlots.release();
+        }
+    }
+    
+    private void executeInSlot(Pickle pickle) throws InterruptedException {
+        AdaptiveConcurrencyController controller = AdaptiveConcurrencyController.isEnabled()
+            ? AdaptiveConcurrencyController.getInstance()
+            : null;
+        if (controller != null) {
+            controller.acquire();
+        }
+        
+        String scenarioId = scenarioId(pickle);
+        long start = System.currentTimeMillis();
+        firstStart.accumulateAndGet(start, Math::min);
+        
+        try {
+            executeScenario(runnerOf.get(pickle).testNGCucumberRunner, pickle);
+            // Only passed runs are recorded, a scenario failing early says little about its usual duration
+            history.record(scenarioId, System.currentTimeMillis() - start);
+            if (resultCache != null) {
+                resultCache.record(scenarioId, true);
+            }
+        } catch (RuntimeException | Error e) {
+            if (resultCache != null) {
+                resultCache.record(scenarioId, false);
+            }
+            throw e;
+        } finally {
+            lastEnd.accumulateAndGet(System.currentTimeMillis(), Math::max);
+            if (controller != null) {
+                controller.release();
+            }
+        }
+    }
+    
+    /**
+     * Run a scenario on the Cucumber runner that provided it
+     * Subclasses may wrap the run, e.g. to keep the worker's browser warm between scenarios
+     * @param runner Cucumber runner of the scenario
+     * @param pickle Scenario
+     */
+    protected void executeScenario(TestNGCucumberRunner runner, Pickle pickle) {
+        runner.runScenario(pickle);
+    }
+    
+    /**
+     * Run a quarantined scenario in one of the quarantine lane's slots
+     * Failures are reported as skipped so they do not fail the build; retrying them would only hide the flakiness
+     */
+    private void executeQuarantined(Pickle pickle) throws InterruptedException {
+        double score = flakinessTracker.getScore(scenarioId(pickle));
+        Reporter.getCurrentTestResult().setAttribute(FlakinessTracker.QUARANTINED_ATTRIBUTE, score);
+        
+        quarantineSlots.acquire();
+        try {
+            execute(pickle);
+        } catch (SkipException e) {
+            throw e;
+        } catch (RuntimeException | Error e) {
+            throw new SkipException(String.format("Quarantined scenario (flakiness %.2f) failed: %s", score, e.getMessage()), e);
+        } finally {
+            quarantineSlots.release();
+        }
+    }
+    
+    private static Pickle pickle(Object[] scenario) {
+        return ((PickleWrapper) scenario[0]).getPickle();
+    }
+    
+    private static String scenarioId(Object[] scenario) {
+        return scenarioId(pickle(scenario));
+    }
+    
+    private static String scenarioId(Pickle pickle) {
+        return ScenarioId.of(pickle.getUri(), pickle.getLine());
+    }
+    
+    /**
+     * Cucumber runner of one runner class and the report receiving its cached scenarios
+     */
+    private final class CucumberRunner {
+        private final TestNGCucumberRunner testNGCucumberRunner;
+        private final CachedScenarioReport cachedScenarioReport;
+        
+        CucumberRunner(Class<?> runnerClass, ITestContext context) {
+            CucumberPropertiesProvider parameters = context.getCurrentXmlTest()::getParameter;
+            testNGCucumberRunner = RunnerPlugins.createRunner(runnerClass, parameters);
+            cachedScenarioReport = resultCache != null
+                ? new CachedScenarioReport(runnerClass.getSimpleName(), RunnerPlugins.reportPlugins(runnerClass, parameters))
+                : null;
+        }
+    }
+}
\ No newline at end of file
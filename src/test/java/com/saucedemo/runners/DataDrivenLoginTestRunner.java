@@ -0,0 +1,28 @@
+package com.saucedemo.runners;
+
+import io.cucumber.testng.CucumberOptions;
+
+/**
+ * Test Runner for data-driven Login scenarios fed from users.json
+ */
+@CucumberOptions(
+    features = "src/test/resources/features/data_driven_login.feature",
+    glue = {
+        "com.saucedemo.stepdefinitions",
+        "com.saucedemo.hooks"
+    },
+    plugin = {
+        "pretty",
+        "html:target/cucumber-reports/data-driven-login",
+        "json:target/cucumber-reports/data-driven-login/cucumber.json",
+        "junit:target/cucumber-reports/data-driven-login/cucumber.xml",
+        "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm"
+    },
+    monochrome = true,
+    publish = false,
+    dryRun = false,
+    tags = "@data_driven"
+)
+public class DataDrivenLoginTestRunner extends AbstractDataDrivenCucumberTests {
+    // This class is empty, scenarios and their data records are supplied by the base class
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.saucedemo.runners;
+
+import io.cucumber.testng.CucumberOptions;
+
+/**
+ * Generic runner used by every <test> block of the suite generated by TestSuiteGenerator
+ * Each block selects its scenarios with the cucumber.features parameter
+ */
+@CucumberOptions(
+    features = "src/test/resources/features",
+    glue = {
+        "com.saucedemo.stepdefinitions",
+        "com.saucedemo.hooks"
+    },
+    plugin = {
+        "pretty",
+        "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm"
+    },
+    monochrome = true,
+    publish = false,
+    dryRun = false,
+    tags = "not @data_driven"
+)
+public class GeneratedSuiteTestRunner extends AbstractParallelCucumberTests {
+    // This class is empty, scenarios are selected per <test> block by the generated suite
+}
\ No newline at end of file
@@ -1,13 +1,10 @@
 package com.saucedemo.runners;
 
-import io.cucumber.junit.Cucumber;
-import io.cucumber.junit.CucumberOptions;
-import org.junit.runner.RunWith;
+import io.cucumber.testng.CucumberOptions;
 
 /**
  * Test Runner for Login functionality tests
  */
-@RunWith(Cucumber.class)
 @CucumberOptions(
     features = "src/test/resources/features/login.feature",
     glue = {
@@ -26,6 +23,6 @@ import org.junit.runner.RunWith;
     dryRun = false,
     tags = "@login"
 )
-public class LoginTestRunner {
-    // This class is empty, test execution is handled by Cucumber
+public class LoginTestRunner extends AbstractParallelCucumberTests {
+    // This class is empty, scenarios are run in parallel by the base class
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.saucedemo.runners;
+
+import com.saucedemo.config.ConfigManager;
+import com.saucedemo.execution.WorkStealingScenarioScheduler;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.TestNGCucumberRunner;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the scenarios of all configured runners from one shared queue
+ * Scenarios of every class in work.stealing.runner.classes go through the base class pipeline as one data
+ * provider, so an idle worker takes the next scenario whichever runner it belongs to. Each scenario is its own
+ * TestNG result. Use testng-work-stealing.xml instead of testng.xml so scenarios are not run twice.
+ */
+public class WorkStealingTestRunner extends AbstractParallelCucumberTests {
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    private final WorkStealingScenarioScheduler scheduler =
+        new WorkStealingScenarioScheduler(config.getWorkStealingTimeoutMinutes());
+    
+    @Override
+    protected List<Class<?>> runnerClasses() {
+        List<Class<?>> runnerClasses = new ArrayList<>();
+        for (String runnerClass : config.getWorkStealingRunnerClasses().split(",")) {
+            try {
+                runnerClasses.add(Class.forName(runnerClass.trim()));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Runner class in work.stealing.runner.classes not found: " + runnerClass, e);
+            }
+        }
+        return runnerClasses;
+    }
+    
+    @BeforeClass(alwaysRun = true)
+    public void startScheduler() {
+        scheduler.start();
+    }
+    
+    @Override
+    protected void executeScenario(TestNGCucumberRunner runner, Pickle pickle) {
+        scheduler.run(pickle, () -> runner.runScenario(pickle));
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void finishScheduler() {
+        scheduler.finish();
+    }
+}
\ No newline at end of file
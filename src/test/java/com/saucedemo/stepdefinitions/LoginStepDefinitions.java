@@ -4,6 +4,7 @@ import com.saucedemo.hooks.TestHooks;
 import com.saucedemo.pages.InventoryPage;
 import com.saucedemo.pages.LoginPage;
 import com.saucedemo.utils.DriverManager;
+import com.saucedemo.utils.ScenarioDataContext;
 import io.cucumber.java.en.And;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
@@ -63,6 +64,7 @@ public class LoginStepDefinitions {
     
     @When("I enter username {string}")
     public void iEnterUsername(String username) {
+        username = ScenarioDataContext.resolve(username);
         TestHooks.logStep("Entering username: " + username);
         TestHooks.logTestData("Username", username);
         
@@ -78,6 +80,7 @@ public class LoginStepDefinitions {
     
     @And("I enter password {string}")
     public void iEnterPassword(String password) {
+        password = ScenarioDataContext.resolve(password);
         TestHooks.logStep("Entering password");
         TestHooks.logTestData("Password", password.isEmpty() ? "empty" : "provided");
         
@@ -151,6 +154,7 @@ public class LoginStepDefinitions {
     
     @Then("I should see an error message {string}")
     public void iShouldSeeAnErrorMessage(String expectedErrorMessage) {
+        expectedErrorMessage = ScenarioDataContext.resolve(expectedErrorMessage);
         TestHooks.logStep("Verifying error message: " + expectedErrorMessage);
         
         boolean errorDisplayed = loginPage.isErrorMessageDisplayed();
@@ -434,6 +438,14 @@ public class LoginStepDefinitions {
         logger.info("Login outcome verified: {}", outcome);
     }
     
+    @Then("the login outcome should match the login success flag {string}")
+    public void theLoginOutcomeShouldMatchTheLoginSuccessFlag(String loginSuccess) {
+        loginSuccess = ScenarioDataContext.resolve(loginSuccess);
+        TestHooks.logTestData("Login Success Flag", loginSuccess);
+        
+        theLoginOutcomeShouldBe(Boolean.parseBoolean(loginSuccess) ? "success" : "failure");
+    }
+    
     @Then("the password field should mask the input")
     public void thePasswordFieldShouldMaskTheInput() {
         TestHooks.logStep("Verifying password field masks input");
@@ -0,0 +1,23 @@
+@login @data_driven
+Feature: Data-driven Login from test data
+  As a test engineer
+  I want login scenarios to be fed from users.json
+  So that every user type is covered without maintaining Examples tables
+
+  Background:
+    Given I am on the SauceDemo login page
+
+  @data:users.json:users
+  Scenario: Login with each user type from users.json
+    When I enter username "${username}"
+    And I enter password "${password}"
+    And I click the login button
+    Then the login outcome should match the login success flag "${login_success}"
+
+  @negative @data:users.json:invalid_users
+  Scenario: Login is rejected for each invalid user from users.json
+    When I enter username "${username}"
+    And I enter password "${password}"
+    And I click the login button
+    Then I should see an error message "${error_message}"
+    And I should remain on the login page
\ No newline at end of file
@@ -44,7 +44,7 @@ Feature: Login Functionality
     And the page title should be "Swag Labs"
     And I should see the products page with inventory items
 
-  @positive
+  @positive @allow:images
   Scenario: Successful login with visual user
     When I enter username "visual_user"
     And I enter password "secret_sauce"
@@ -0,0 +1,455 @@
+/*
+ * Local replica of the SauceDemo flows targeted by the page objects.
+ * Session and cart live in the browser (session-username cookie, cart-contents localStorage key), like the
+ * real application, so DriverManager's reset between scenarios clears them.
+ */
+var App = (function () {
+    var SESSION_COOKIE = 'session-username';
+    var CART_KEY = 'cart-contents';
+    var TAX_RATE = 0.08;
+    var PROTECTED_VIEWS = ['inventory', 'item', 'cart', 'checkoutInformation', 'checkoutOverview', 'checkoutComplete'];
+    var SORTERS = {
+        az: function (a, b) { return a.name.localeCompare(b.name); },
+        za: function (a, b) { return b.name.localeCompare(a.name); },
+        lohi: function (a, b) { return a.price_value - b.price_value; },
+        hilo: function (a, b) { return b.price_value - a.price_value; }
+    };
+    var SORT_LABELS = {az: 'Name (A to Z)', za: 'Name (Z to A)', lohi: 'Price (low to high)', hilo: 'Price (high to low)'};
+
+    var products = window.APP_DATA.products.products;
+    var users = window.APP_DATA.users.users;
+    var root;
+    var sortOrder = 'az';
+
+    function escape(text) {
+        return String(text).replace(/[&<>"']/g, function (c) {
+            return {'&': '&amp;', '<': '&lt;', '>': '&gt;', '"': '&quot;', "'": '&#39;'}[c];
+        });
+    }
+
+    function getSessionUser() {
+        var match = document.cookie.match(new RegExp('(?:^|; )' + SESSION_COOKIE + '=([^;]*)'));
+        return match ? decodeURIComponent(match[1]) : null;
+    }
+
+    function setSessionUser(username) {
+        document.cookie = SESSION_COOKIE + '=' + (username ? encodeURIComponent(username) : '') + '; path=/'
+            + (username ? '' : '; expires=Thu, 01 Jan 1970 00:00:00 GMT');
+    }
+
+    function getCart() {
+        try {
+            return JSON.parse(window.localStorage.getItem(CART_KEY)) || [];
+        } catch (e) {
+            return [];
+        }
+    }
+
+    function setCart(ids) {
+        window.localStorage.setItem(CART_KEY, JSON.stringify(ids));
+    }
+
+    function findProduct(id) {
+        for (var i = 0; i < products.length; i++) {
+            if (products[i].id === String(id)) {
+                return products[i];
+            }
+        }
+        return null;
+    }
+
+    function slug(product) {
+        return product.inventory_item_name;
+    }
+
+    function money(value) {
+        return '$' + value.toFixed(2);
+    }
+
+    function cartButton(product, inCart) {
+        var action = inCart ? 'remove' : 'add-to-cart';
+        return '<button class="btn ' + (inCart ? 'btn_secondary' : 'btn_primary') + ' btn_small btn_inventory"'
+            + ' data-test="' + action + '-' + slug(product) + '" id="' + action + '-' + slug(product) + '"'
+            + ' name="' + action + '-' + slug(product) + '" data-id="' + product.id + '">'
+            + (inCart ? 'Remove' : 'Add to cart') + '</button>';
+    }
+
+    function header(title, secondary) {
+        var count = getCart().length;
+        return '<div id="header_container" class="header_container">'
+            + '<div class="primary_header" data-test="primary-header">'
+            + '<div id="menu_button_container">'
+            + '<div class="bm-burger-button"><button type="button" id="react-burger-menu-btn">Open Menu</button></div>'
+            + '<div class="bm-menu-wrap" aria-hidden="true" hidden>'
+            + '<nav class="bm-item-list">'
+            + '<a id="inventory_sidebar_link" class="bm-item menu-item" data-test="inventory-sidebar-link" href="/inventory.html">All Items</a>'
+            + '<a id="about_sidebar_link" class="bm-item menu-item" data-test="about-sidebar-link" href="https://saucelabs.com/">About</a>'
+            + '<a id="logout_sidebar_link" class="bm-item menu-item" data-test="logout-sidebar-link" href="#">Logout</a>'
+            + '<a id="reset_sidebar_link" class="bm-item menu-item" data-test="reset-sidebar-link" href="#">Reset App State</a>'
+            + '</nav>'
+            + '<div class="bm-cross-button"><button type="button" id="react-burger-cross-btn">Close Menu</button></div>'
+            + '</div></div>'
+            + '<div class="header_label"><div class="app_logo">Swag Labs</div></div>'
+            + '<div id="shopping_cart_container" class="shopping_cart_container">'
+            + '<a class="shopping_cart_link" data-test="shopping-cart-link" href="/cart.html">'
+            + (count > 0 ? '<span class="shopping_cart_badge" data-test="shopping-cart-badge">' + count + '</span>' : '')
+            + '</a></div></div>'
+            + '<div class="header_secondary_container" data-test="secondary-header">'
+            + (title ? '<span class="title" data-test="title">' + escape(title) + '</span>' : '')
+            + (secondary || '')
+            + '</div></div>';
+    }
+
+    function page(title, secondary, contents) {
+        return '<div id="page_wrapper" class="page_wrapper"><div id="contents_wrapper">'
+            + header(title, secondary) + contents + '</div></div>';
+    }
+
+    function renderLogin(error) {
+        var usernames = Object.keys(users).map(escape).join('<br>');
+        root.innerHTML = '<div class="login_container">'
+            + '<div class="login_logo">Swag Labs</div>'
+            + '<div class="login_wrapper"><div class="login_wrapper-inner">'
+            + '<div id="login_button_container" class="form_column"><div class="login-box">'
+            + '<form id="login_form" novalidate>'
+            + '<div class="form_group"><input class="form_input' + (error ? ' input_error' : '') + '" placeholder="Username"'
+            + ' type="text" data-test="username" id="user-name" name="user-name" autocorrect="off" autocapitalize="none"></div>'
+            + '<div class="form_group"><input class="form_input' + (error ? ' input_error' : '') + '" placeholder="Password"'
+            + ' type="password" data-test="password" id="password" name="password" autocorrect="off" autocapitalize="none"></div>'
+            + '<div class="error-message-container' + (error ? ' error' : '') + '">'
+            + (error ? '<h3 data-test="error"><button type="button" class="error-button" data-test="error-button"'
+                + ' aria-label="Close error"></button>' + escape(error) + '</h3>' : '')
+            + '</div>'
+            + '<input type="submit" class="submit-button btn_action" data-test="login-button" id="login-button"'
+            + ' name="login-button" value="Login">'
+            + '</form></div></div>'
+            + '<div class="bot_column"></div>'
+            + '</div></div>'
+            + '<div class="login_credentials_wrap"><div class="login_credentials_wrap-inner">'
+            + '<div id="login_credentials" class="login_credentials" data-test="login-credentials">'
+            + '<h4>Accepted usernames are:</h4>' + usernames + '</div>'
+            + '<div class="login_password" data-test="login-password"><h4>Password for all users:</h4>secret_sauce</div>'
+            + '</div></div></div>';
+
+        var form = document.getElementById('login_form');
+        var username = document.getElementById('user-name');
+        var password = document.getElementById('password');
+        form.addEventListener('submit', function (event) {
+            event.preventDefault();
+            login(username.value, password.value);
+        });
+        var closeButton = root.querySelector('.error-button');
+        if (closeButton) {
+            closeButton.addEventListener('click', function () {
+                root.querySelector('.error-message-container').innerHTML = '';
+                root.querySelector('.error-message-container').className = 'error-message-container';
+            });
+        }
+    }
+
+    function login(username, password) {
+        var user = users.hasOwnProperty(username) ? users[username] : null;
+        var error = null;
+        if (!username) {
+            error = 'Epic sadface: Username is required';
+        } else if (!password) {
+            error = 'Epic sadface: Password is required';
+        } else if (!user || user.password !== password) {
+            error = 'Epic sadface: Username and password do not match any user in this service';
+        } else if (user.expected_behavior === 'locked') {
+            error = 'Epic sadface: Sorry, this user has been locked out.';
+        }
+
+        if (error) {
+            var typedUsername = username;
+            var typedPassword = password;
+            renderLogin(error);
+            document.getElementById('user-name').value = typedUsername;
+            document.getElementById('password').value = typedPassword;
+            return;
+        }
+        setSessionUser(username);
+        window.location.href = '/inventory.html';
+    }
+
+    function inventoryItem(product, inCart) {
+        return '<div class="inventory_item" data-test="inventory-item">'
+            + '<div class="inventory_item_img">'
+            + '<a href="/inventory-item.html?id=' + product.id + '" id="item_' + product.id + '_img_link"'
+            + ' data-test="item-' + slug(product) + '-img-link">'
+            + '<img alt="' + escape(product.name) + '" class="inventory_item_img" src="/product.svg"></a></div>'
+            + '<div class="inventory_item_description" data-test="inventory-item-description">'
+            + '<div class="inventory_item_label">'
+            + '<a href="/inventory-item.html?id=' + product.id + '" id="item_' + product.id + '_title_link"'
+            + ' data-test="item-' + slug(product) + '-title-link">'
+            + '<div class="inventory_item_name" data-test="inventory-item-name">' + escape(product.name) + '</div></a>'
+            + '<div class="inventory_item_desc" data-test="inventory-item-desc">' + escape(product.description) + '</div>'
+            + '</div>'
+            + '<div class="pricebar"><div class="inventory_item_price" data-test="inventory-item-price">'
+            + escape(product.price) + '</div>' + cartButton(product, inCart) + '</div>'
+            + '</div></div>';
+    }
+
+    function renderInventory() {
+        var cart = getCart();
+        var sorted = products.slice().sort(SORTERS[sortOrder]);
+        var options = Object.keys(SORT_LABELS).map(function (value) {
+            return '<option value="' + value + '"' + (value === sortOrder ? ' selected' : '') + '>'
+                + SORT_LABELS[value] + '</option>';
+        }).join('');
+        var sortControl = '<div class="right_component"><span class="select_container">'
+            + '<span class="active_option" data-test="active-option">' + SORT_LABELS[sortOrder] + '</span>'
+            + '<select class="product_sort_container" data-test="product-sort-container">' + options + '</select>'
+            + '</span></div>';
+
+        root.innerHTML = page('Products', sortControl,
+            '<div id="inventory_container" class="inventory_container" data-test="inventory-container">'
+            + '<div class="inventory_list" data-test="inventory-list">'
+            + sorted.map(function (product) { return inventoryItem(product, cart.indexOf(product.id) >= 0); }).join('')
+            + '</div></div>');
+
+        root.querySelector('.product_sort_container').addEventListener('change', function (event) {
+            sortOrder = event.target.value;
+            renderInventory();
+        });
+    }
+
+    function renderItem() {
+        var id = new URLSearchParams(window.location.search).get('id');
+        var product = findProduct(id);
+        var contents = '<div class="inventory_details" data-test="inventory-container">'
+            + '<button class="btn btn_secondary back btn_large inventory_details_back_button"'
+            + ' data-test="back-to-products" id="back-to-products" name="back-to-products">Back to products</button>';
+        if (!product) {
+            contents += '<div class="inventory_details_name large_size">ITEM NOT FOUND</div></div>';
+        } else {
+            contents += '<div class="inventory_details_container">'
+                + '<img alt="' + escape(product.name) + '" class="inventory_details_img" src="/product.svg">'
+                + '<div class="inventory_details_desc_container">'
+                + '<div class="inventory_details_name large_size" data-test="inventory-item-name">' + escape(product.name) + '</div>'
+                + '<div class="inventory_details_desc large_size" data-test="inventory-item-desc">' + escape(product.description) + '</div>'
+                + '<div class="inventory_details_price" data-test="inventory-item-price">' + escape(product.price) + '</div>'
+                + cartButton(product, getCart().indexOf(product.id) >= 0)
+                + '</div></div></div>';
+        }
+        root.innerHTML = page(null, '', contents);
+        document.getElementById('back-to-products').addEventListener('click', function () {
+            window.location.href = '/inventory.html';
+        });
+    }
+
+    function cartItem(product) {
+        return '<div class="cart_item" data-test="inventory-item">'
+            + '<div class="cart_quantity" data-test="item-quantity">1</div>'
+            + '<div class="cart_item_label">'
+            + '<a href="/inventory-item.html?id=' + product.id + '" id="item_' + product.id + '_title_link"'
+            + ' data-test="item-' + slug(product) + '-title-link">'
+            + '<div class="inventory_item_name" data-test="inventory-item-name">' + escape(product.name) + '</div></a>'
+            + '<div class="inventory_item_desc" data-test="inventory-item-desc">' + escape(product.description) + '</div>'
+            + '<div class="item_pricebar"><div class="inventory_item_price" data-test="inventory-item-price">'
+            + escape(product.price) + '</div>' + cartButton(product, true) + '</div>'
+            + '</div></div>';
+    }
+
+    function cartProducts() {
+        return getCart().map(findProduct).filter(function (product) { return product !== null; });
+    }
+
+    function renderCart() {
+        root.innerHTML = page('Your Cart', '',
+            '<div id="cart_contents_container" class="cart_contents_container">'
+            + '<div class="cart_list" data-test="cart-list">'
+            + '<div class="cart_quantity_label" data-test="cart-quantity-label">QTY</div>'
+            + '<div class="cart_desc_label" data-test="cart-desc-label">Description</div>'
+            + cartProducts().map(cartItem).join('')
+            + '</div>'
+            + '<div class="cart_footer">'
+            + '<button class="btn btn_secondary back btn_medium" data-test="continue-shopping" id="continue-shopping"'
+            + ' name="continue-shopping">Continue Shopping</button>'
+            + '<button class="btn btn_action btn_medium checkout_button" data-test="checkout" id="checkout"'
+            + ' name="checkout">Checkout</button>'
+            + '</div></div>');
+
+        document.getElementById('continue-shopping').addEventListener('click', function () {
+            window.location.href = '/inventory.html';
+        });
+        document.getElementById('checkout').addEventListener('click', function () {
+            window.location.href = '/checkout-step-one.html';
+        });
+    }
+
+    function renderCheckoutInformation(error, values) {
+        values = values || {};
+        function field(id, placeholder, test) {
+            return '<div class="form_group"><input class="input_error form_input" placeholder="' + placeholder + '"'
+                + ' type="text" data-test="' + test + '" id="' + id + '" name="' + id + '"'
+                + ' value="' + escape(values[id] || '') + '"></div>';
+        }
+        root.innerHTML = page('Checkout: Your Information', '',
+            '<div class="checkout_info_container"><div class="checkout_info_wrapper"><form id="checkout_form" novalidate>'
+            + '<div class="checkout_info">'
+            + field('first-name', 'First Name', 'firstName')
+            + field('last-name', 'Last Name', 'lastName')
+            + field('postal-code', 'Zip/Postal Code', 'postalCode')
+            + '<div class="error-message-container' + (error ? ' error' : '') + '">'
+            + (error ? '<h3 data-test="error"><button type="button" class="error-button" data-test="error-button"'
+                + ' aria-label="Close error"></button>' + escape(error) + '</h3>' : '')
+            + '</div></div>'
+            + '<div class="checkout_buttons">'
+            + '<button type="button" class="btn btn_secondary back btn_medium cart_cancel_link" data-test="cancel"'
+            + ' id="cancel" name="cancel">Cancel</button>'
+            + '<input type="submit" class="submit-button btn btn_primary cart_button btn_action" data-test="continue"'
+            + ' id="continue" name="continue" value="Continue">'
+            + '</div></form></div></div>');
+
+        document.getElementById('cancel').addEventListener('click', function () {
+            window.location.href = '/cart.html';
+        });
+        document.getElementById('checkout_form').addEventListener('submit', function (event) {
+            event.preventDefault();
+            var entered = {
+                'first-name': document.getElementById('first-name').value,
+                'last-name': document.getElementById('last-name').value,
+                'postal-code': document.getElementById('postal-code').value
+            };
+            var missing = !entered['first-name'] ? 'First Name'
+                : !entered['last-name'] ? 'Last Name'
+                : !entered['postal-code'] ? 'Postal Code' : null;
+            if (missing) {
+                renderCheckoutInformation('Error: ' + missing + ' is required', entered);
+                bindHeader(VIEWS.checkoutInformation);
+                return;
+            }
+            window.location.href = '/checkout-step-two.html';
+        });
+    }
+
+    function renderCheckoutOverview() {
+        var items = cartProducts();
+        var subtotal = items.reduce(function (sum, product) { return sum + product.price_value; }, 0);
+        var tax = Math.round(subtotal * TAX_RATE * 100) / 100;
+        root.innerHTML = page('Checkout: Overview', '',
+            '<div id="checkout_summary_container" class="checkout_summary_container"><div>'
+            + '<div class="cart_list" data-test="cart-list">'
+            + '<div class="cart_quantity_label" data-test="cart-quantity-label">QTY</div>'
+            + '<div class="cart_desc_label" data-test="cart-desc-label">Description</div>'
+            + items.map(cartItem).join('')
+            + '</div>'
+            + '<div class="summary_info">'
+            + '<div class="summary_info_label" data-test="payment-info-label">Payment Information:</div>'
+            + '<div class="summary_value_label" data-test="payment-info-value">SauceCard #31337</div>'
+            + '<div class="summary_info_label" data-test="shipping-info-label">Shipping Information:</div>'
+            + '<div class="summary_value_label" data-test="shipping-info-value">Free Pony Express Delivery!</div>'
+            + '<div class="summary_info_label" data-test="total-info-label">Price Total</div>'
+            + '<div class="summary_subtotal_label" data-test="subtotal-label">Item total: ' + money(subtotal) + '</div>'
+            + '<div class="summary_tax_label" data-test="tax-label">Tax: ' + money(tax) + '</div>'
+            + '<div class="summary_info_label summary_total_label" data-test="total-label">Total: '
+            + money(subtotal + tax) + '</div>'
+            + '<div class="cart_footer">'
+            + '<button class="btn btn_secondary back btn_medium cart_cancel_link" data-test="cancel" id="cancel"'
+            + ' name="cancel">Cancel</button>'
+            + '<button class="btn btn_action btn_medium cart_button" data-test="finish" id="finish"'
+            + ' name="finish">Finish</button>'
+            + '</div></div></div></div>');
+
+        // The overview lists cart items with remove buttons only on the cart page
+        root.querySelectorAll('.cart_item [data-test^="remove"]').forEach(function (button) {
+            button.parentNode.removeChild(button);
+        });
+        document.getElementById('cancel').addEventListener('click', function () {
+            window.location.href = '/inventory.html';
+        });
+        document.getElementById('finish').addEventListener('click', function () {
+            setCart([]);
+            window.location.href = '/checkout-complete.html';
+        });
+    }
+
+    function renderCheckoutComplete() {
+        root.innerHTML = page('Checkout: Complete!', '',
+            '<div id="checkout_complete_container" class="checkout_complete_container" data-test="checkout-complete-container">'
+            + '<h2 class="complete-header" data-test="complete-header">Thank you for your order!</h2>'
+            + '<div class="complete-text" data-test="complete-text">Your order has been dispatched, and will arrive'
+            + ' just as fast as the pony can get there!</div>'
+            + '<button class="btn btn_primary btn_small" data-test="back-to-products" id="back-to-products"'
+            + ' name="back-to-products">Back Home</button>'
+            + '</div>');
+
+        document.getElementById('back-to-products').addEventListener('click', function () {
+            window.location.href = '/inventory.html';
+        });
+    }
+
+    function bindHeader(rerender) {
+        var menu = root.querySelector('.bm-menu-wrap');
+        if (!menu) {
+            return;
+        }
+        document.getElementById('react-burger-menu-btn').addEventListener('click', function () {
+            menu.hidden = false;
+            menu.setAttribute('aria-hidden', 'false');
+        });
+        document.getElementById('react-burger-cross-btn').addEventListener('click', function () {
+            menu.hidden = true;
+            menu.setAttribute('aria-hidden', 'true');
+        });
+        document.getElementById('logout_sidebar_link').addEventListener('click', function (event) {
+            event.preventDefault();
+            setSessionUser(null);
+            window.location.href = '/';
+        });
+        document.getElementById('reset_sidebar_link').addEventListener('click', function (event) {
+            event.preventDefault();
+            setCart([]);
+            rerender();
+            root.querySelector('.bm-menu-wrap').hidden = false;
+            bindHeader(rerender);
+        });
+    }
+
+    function bindCartButtons(rerender) {
+        root.addEventListener('click', function (event) {
+            var button = event.target.closest('[data-id]');
+            if (!button) {
+                return;
+            }
+            var id = button.getAttribute('data-id');
+            var cart = getCart();
+            var index = cart.indexOf(id);
+            if (index >= 0) {
+                cart.splice(index, 1);
+            } else {
+                cart.push(id);
+            }
+            setCart(cart);
+            rerender();
+            bindHeader(rerender);
+        });
+    }
+
+    var VIEWS = {
+        login: function () { renderLogin(null); },
+        inventory: renderInventory,
+        item: renderItem,
+        cart: renderCart,
+        checkoutInformation: function () { renderCheckoutInformation(null); },
+        checkoutOverview: renderCheckoutOverview,
+        checkoutComplete: renderCheckoutComplete
+    };
+
+    return {
+        render: function (view) {
+            root = document.getElementById('root');
+            if (PROTECTED_VIEWS.indexOf(view) >= 0 && !getSessionUser()) {
+                renderLogin('Epic sadface: You can only access \'' + window.location.pathname
+                    + '\' when you are logged in.');
+                return;
+            }
+            VIEWS[view]();
+            if (view !== 'login') {
+                bindHeader(VIEWS[view]);
+                bindCartButtons(VIEWS[view]);
+            }
+        }
+    };
+})();